@@ -0,0 +1,104 @@
+package com.demo.benchmark;
+
+import cn.z.id.Id;
+import cn.z.tinytoken.Base62;
+import cn.z.tinytoken.T4s;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>编解码基准测试</h1>
+ *
+ * <p>
+ * Base62、32位随机字符串、键的拼接和解析，不访问Redis
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 18:10:05
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.0.0
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final String PREFIX = "tinytoken";
+    private long number;
+    private String encoded;
+    private String token;
+    private long id;
+    private String key;
+    private final char[] chars = new char[11];
+
+    @Setup
+    public void setup() {
+        number = Id.next();
+        encoded = Base62.encode(number);
+        id = 1234567890L;
+        token = T4s.encode(number, id);
+        key = PREFIX + ":" + id + ":" + token;
+    }
+
+    @Benchmark
+    public String base62Encode() {
+        return Base62.encode(number);
+    }
+
+    @Benchmark
+    public char[] base62EncodeFixed() {
+        Base62.encode(number, chars, 0, 11);
+        return chars;
+    }
+
+    @Benchmark
+    public long base62Decode() {
+        return Base62.decode(encoded);
+    }
+
+    @Benchmark
+    public long base62DecodeRange() {
+        return Base62.decode(token, 21, 11);
+    }
+
+    @Benchmark
+    public String t4sEncode() {
+        return T4s.encode(number, id);
+    }
+
+    @Benchmark
+    public long[] t4sDecode() {
+        return T4s.decode(token);
+    }
+
+    @Benchmark
+    public long t4sDecodeId() {
+        return T4s.decodeId(token);
+    }
+
+    @Benchmark
+    public String keyBuild() {
+        return PREFIX + ":" + id + ":" + token;
+    }
+
+    @Benchmark
+    public String[] keySplit() {
+        return key.split(":", -1);
+    }
+
+}
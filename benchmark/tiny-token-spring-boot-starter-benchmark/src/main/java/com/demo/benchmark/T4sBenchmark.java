@@ -0,0 +1,256 @@
+package com.demo.benchmark;
+
+import cn.z.id.Id;
+import cn.z.tinytoken.Rt;
+import cn.z.tinytoken.T4s;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import cn.z.tinytoken.entity.TokenInfo;
+import cn.z.tinytoken.entity.TokenInfoExtra;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>T4s基准测试</h1>
+ *
+ * <p>
+ * 需要本地Redis(-Dredis.host、-Dredis.port，默认127.0.0.1:6379)<br>
+ * 读操作使用数据库-Dredis.database(必须指定)，写操作使用下一个数据库，<b>会清空这两个数据库</b><br>
+ * 按键空间大小、查找模式预先批量写入token，已写入相同数据时不再写入
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 18:15:42
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.0.0
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class T4sBenchmark {
+
+    private static final String PREFIX = "bench";
+    private static final String MARKER = "bench-populated";
+    private static final String HOST = System.getProperty("redis.host", "127.0.0.1");
+    private static final int PORT = Integer.getInteger("redis.port", 6379);
+    /**
+     * 每批写入条数
+     */
+    private static final int BATCH = 10000;
+    /**
+     * 过期时间(秒)
+     */
+    private static final long TIMEOUT = 86400L;
+    /**
+     * 用于查询的token个数
+     */
+    private static final int SAMPLE = 1024;
+
+    /**
+     * 读状态(预先写入的键空间)
+     */
+    @State(Scope.Benchmark)
+    public static class ReadState {
+
+        @Param({"10000", "1000000"})
+        public int keyspace;
+        @Param({"SCAN", "INDEX"})
+        public TinyTokenProperties.LookupMode lookupMode;
+
+        LettuceConnectionFactory factory;
+        Rt rt;
+        T4s t4s;
+        final String[] tokens = new String[SAMPLE];
+
+        @Setup(Level.Trial)
+        public void setup() {
+            factory = connect(database());
+            TinyTokenProperties properties = properties(lookupMode);
+            rt = new Rt(factory, properties);
+            t4s = new T4s(properties, rt);
+            populate();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            t4s.destroy();
+            rt.destroy();
+            factory.destroy();
+        }
+
+        String token() {
+            return tokens[ThreadLocalRandom.current().nextInt(SAMPLE)];
+        }
+
+        /**
+         * 批量写入(键 索引模式下还有用户键)
+         */
+        private void populate() {
+            String marker = lookupMode + ":" + keyspace;
+            RedisConnection connection = factory.getConnection();
+            try {
+                byte[] current = connection.stringCommands().get(bytes(MARKER));
+                if (current != null && marker.equals(new String(current, StandardCharsets.UTF_8))) {
+                    String[] sample = new String[SAMPLE];
+                    int i = 0;
+                    for (String token : rt.scan(PREFIX + ":[0-9]*:*", SAMPLE, 0)) {
+                        sample[i++] = token.substring(token.lastIndexOf(':') + 1);
+                    }
+                    if (i == SAMPLE) {
+                        System.arraycopy(sample, 0, tokens, 0, SAMPLE);
+                        return;
+                    }
+                }
+                connection.serverCommands().flushDb();
+                long expireAt = System.currentTimeMillis() / 1000 + TIMEOUT;
+                for (int start = 0; start < keyspace; start += BATCH) {
+                    connection.openPipeline();
+                    for (int i = start; i < Math.min(start + BATCH, keyspace); i++) {
+                        long id = i;
+                        String token = T4s.encode(Id.next(), id);
+                        if (i < SAMPLE) {
+                            tokens[i] = token;
+                        }
+                        connection.stringCommands().set(bytes(PREFIX + ":" + id + ":" + token), bytes(""), Expiration.seconds(TIMEOUT), RedisStringCommands.SetOption.UPSERT);
+                        if (lookupMode == TinyTokenProperties.LookupMode.INDEX) {
+                            connection.zSetCommands().zAdd(bytes(PREFIX + ":u:" + id), expireAt, bytes(token));
+                        }
+                    }
+                    connection.closePipeline();
+                }
+                connection.stringCommands().set(bytes(MARKER), bytes(marker));
+            } finally {
+                connection.close();
+            }
+        }
+
+    }
+
+    /**
+     * 写状态(每次迭代后清空)
+     */
+    @State(Scope.Benchmark)
+    public static class WriteState {
+
+        @Param({"SCAN", "INDEX"})
+        public TinyTokenProperties.LookupMode lookupMode;
+
+        LettuceConnectionFactory factory;
+        Rt rt;
+        T4s t4s;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            factory = connect(database() + 1);
+            TinyTokenProperties properties = properties(lookupMode);
+            rt = new Rt(factory, properties);
+            t4s = new T4s(properties, rt);
+        }
+
+        @TearDown(Level.Iteration)
+        public void flush() {
+            RedisConnection connection = factory.getConnection();
+            try {
+                connection.serverCommands().flushDb();
+            } finally {
+                connection.close();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            t4s.destroy();
+            rt.destroy();
+            factory.destroy();
+        }
+
+    }
+
+    @Benchmark
+    public String setToken(WriteState state) {
+        return state.t4s.setToken(ThreadLocalRandom.current().nextLong(1000000));
+    }
+
+    @Benchmark
+    public boolean existByToken(ReadState state) {
+        return state.t4s.existByToken(state.token());
+    }
+
+    @Benchmark
+    public boolean existByTokenMissing(ReadState state) {
+        return state.t4s.existByToken(T4s.encode(Id.next(), 0));
+    }
+
+    @Benchmark
+    public Long getId(ReadState state) {
+        return state.t4s.getId(state.token());
+    }
+
+    @Benchmark
+    public TokenInfoExtra getInfoExtraByToken(ReadState state) {
+        return state.t4s.getInfoExtraByToken(state.token());
+    }
+
+    @Benchmark
+    public List<TokenInfo> getInfo(ReadState state) {
+        return state.t4s.getInfo();
+    }
+
+    /**
+     * 读操作使用的数据库(必须指定 防止误清空)
+     *
+     * @return 数据库
+     */
+    private static int database() {
+        String database = System.getProperty("redis.database");
+        if (database == null) {
+            throw new IllegalStateException("需要指定-Dredis.database(会清空该数据库和下一个数据库)");
+        }
+        return Integer.parseInt(database);
+    }
+
+    private static LettuceConnectionFactory connect(int database) {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(HOST, PORT);
+        configuration.setDatabase(database);
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private static TinyTokenProperties properties(TinyTokenProperties.LookupMode lookupMode) {
+        TinyTokenProperties properties = new TinyTokenProperties();
+        properties.setPrefix(PREFIX);
+        properties.setTimeout(TIMEOUT);
+        properties.setLookupMode(lookupMode);
+        return properties;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
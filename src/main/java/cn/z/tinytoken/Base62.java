@@ -36,11 +36,61 @@ public class Base62 {
         if (number == 0) {
             return String.valueOf((char) ALPHABET[0]);
         }
-        StringBuilder sb = new StringBuilder();
+        char[] chars = new char[11];
+        int i = chars.length;
         for (; number > 0; number /= 62) {
-            sb.append((char) ALPHABET[(int) (number % 62)]);
+            chars[--i] = (char) ALPHABET[(int) (number % 62)];
+        }
+        return new String(chars, i, chars.length - i);
+    }
+
+    /**
+     * 编码long型数字(定长 左侧补0)到字符数组
+     *
+     * @param number long型数字(非负)
+     * @param dst    字符数组
+     * @param offset 起始位置
+     * @param width  长度(11位可以容纳任意非负long型数字)
+     * @throws IllegalArgumentException 数字为负数或超出长度
+     * @since 1.8.0
+     */
+    public static void encode(long number, char[] dst, int offset, int width) {
+        if (number < 0) {
+            throw new IllegalArgumentException("数字不能为负数");
+        }
+        for (int i = offset + width - 1; i >= offset; i--) {
+            dst[i] = (char) ALPHABET[(int) (number % 62)];
+            number /= 62;
+        }
+        if (number != 0) {
+            throw new IllegalArgumentException("数字超出" + width + "位");
+        }
+    }
+
+    /**
+     * 编码long型数字(定长 左侧补0)追加到StringBuilder
+     *
+     * @param number long型数字(非负)
+     * @param width  长度(11位可以容纳任意非负long型数字)
+     * @param sb     StringBuilder
+     * @throws IllegalArgumentException 数字为负数或超出长度
+     * @since 1.8.0
+     */
+    public static void encode(long number, int width, StringBuilder sb) {
+        int start = sb.length();
+        sb.setLength(start + width);
+        if (number < 0) {
+            sb.setLength(start);
+            throw new IllegalArgumentException("数字不能为负数");
+        }
+        for (int i = start + width - 1; i >= start; i--) {
+            sb.setCharAt(i, (char) ALPHABET[(int) (number % 62)]);
+            number /= 62;
+        }
+        if (number != 0) {
+            sb.setLength(start);
+            throw new IllegalArgumentException("数字超出" + width + "位");
         }
-        return sb.reverse().toString();
     }
 
     /**
@@ -48,14 +98,30 @@ public class Base62 {
      *
      * @param string Base62字符串
      * @return long型数字
+     * @throws IllegalArgumentException 包含非Base62字符
      */
     public static long decode(String string) {
-        char[] chars = string.toCharArray();
-        int length = chars.length;
+        return decode(string, 0, string.length());
+    }
+
+    /**
+     * 解码long型数字(指定范围 不创建子字符串)
+     *
+     * @param s      包含Base62字符串的字符序列
+     * @param offset 起始位置
+     * @param length 长度
+     * @return long型数字
+     * @throws IllegalArgumentException 包含非Base62字符
+     * @since 1.8.0
+     */
+    public static long decode(CharSequence s, int offset, int length) {
         long number = 0;
-        long power = 1;
-        for (int i = 0; i < length; i++, power *= 62) {
-            number += LOOKUP[chars[length - i - 1]] * power;
+        for (int i = offset; i < offset + length; i++) {
+            char c = s.charAt(i);
+            if (c >= LOOKUP.length || (LOOKUP[c] == 0 && c != ALPHABET[0])) {
+                throw new IllegalArgumentException("非Base62字符 " + c);
+            }
+            number = number * 62 + LOOKUP[c];
         }
         return number;
     }
@@ -0,0 +1,158 @@
+package cn.z.tinytoken;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h1>布隆过滤器</h1>
+ *
+ * <p>
+ * 元素为long型数字，位数组与Redis位图相同(第0位为第一个字节的最高位)，可以直接使用Redis位图加载<br>
+ * 线程安全，不支持删除
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 16:48:10
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+final class BloomFilter {
+
+    /**
+     * 位数(64的倍数)
+     */
+    private final int size;
+    /**
+     * 哈希函数个数
+     */
+    private final int hashes;
+    /**
+     * 位数组
+     */
+    private volatile AtomicLongArray words;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity          容量(预计元素个数)
+     * @param falsePositiveRate 误判率
+     */
+    BloomFilter(long capacity, double falsePositiveRate) {
+        double bits = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.size = (int) Math.min(Integer.MAX_VALUE - 63, (long) Math.ceil(Math.max(bits, 64) / 64) * 64);
+        this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+        this.words = new AtomicLongArray(size / 64);
+    }
+
+    /**
+     * 位数
+     *
+     * @return 位数
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 哈希函数个数
+     *
+     * @return 哈希函数个数
+     */
+    int hashes() {
+        return hashes;
+    }
+
+    /**
+     * 计算元素对应的位置(双重哈希)
+     *
+     * @param element 元素
+     * @return 位置
+     */
+    int[] positions(long element) {
+        long hash1 = mix(element);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        int[] positions = new int[hashes];
+        for (int i = 0; i < hashes; i++) {
+            positions[i] = (int) Long.remainderUnsigned(hash1 + i * hash2, size);
+        }
+        return positions;
+    }
+
+    /**
+     * 放入
+     *
+     * @param element 元素
+     */
+    void put(long element) {
+        put(words, element);
+    }
+
+    /**
+     * 可能存在
+     *
+     * @param element 元素
+     * @return 可能存在(false一定不存在)
+     */
+    boolean mightContain(long element) {
+        AtomicLongArray current = words;
+        for (int position : positions(element)) {
+            if ((current.get(position >>> 6) & (1L << (63 - (position & 63)))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 使用Redis位图替换全部内容
+     *
+     * @param bitmap  Redis位图(null为空)
+     * @param pending 加载期间放入的元素
+     */
+    void replace(byte[] bitmap, long[] pending) {
+        AtomicLongArray fresh = new AtomicLongArray(size / 64);
+        if (bitmap != null) {
+            int length = Math.min(bitmap.length, size / 8);
+            for (int i = 0; i < length; i++) {
+                if (bitmap[i] != 0) {
+                    int index = i >>> 3;
+                    fresh.set(index, fresh.get(index) | ((bitmap[i] & 0xFFL) << (56 - ((i & 7) << 3))));
+                }
+            }
+        }
+        for (long element : pending) {
+            put(fresh, element);
+        }
+        words = fresh;
+    }
+
+    /**
+     * 放入
+     *
+     * @param array   位数组
+     * @param element 元素
+     */
+    private void put(AtomicLongArray array, long element) {
+        for (int position : positions(element)) {
+            long mask = 1L << (63 - (position & 63));
+            array.getAndAccumulate(position >>> 6, mask, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * 混淆(MurmurHash3 fmix64)
+     *
+     * @param h 数字
+     * @return 混淆后的数字
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85B53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,221 @@
+package cn.z.tinytoken;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>本地缓存</h1>
+ *
+ * <p>
+ * 限制最大条数，超出时先清除已过期的，仍超出则淘汰1/10<br>
+ * 每个条目都有过期时间，不会超过指定的过期时间<br>
+ * 失效时按键记录版本号，只丢弃该键在失效前开始的加载，不影响其他键
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 10:05:12
+ * </p>
+ *
+ * @param <V> 值类型
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class LocalCache<V> {
+
+    /**
+     * 缓存
+     */
+    private final Map<String, Entry<V>> map = new ConcurrentHashMap<>();
+    /**
+     * 失效版本号(每次失效都会自增)
+     */
+    private final AtomicLong stamp = new AtomicLong();
+    /**
+     * 键最近一次失效时的版本号(超过最大条数时提高下限后清除)
+     */
+    private final Map<String, Long> removed = new ConcurrentHashMap<>();
+    /**
+     * 版本号下限(小于该值的加载全部丢弃 全部失效或清除失效记录时提高)
+     */
+    private volatile long floor;
+    /**
+     * 命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * 未命中次数
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * 最大条数
+     */
+    private final int maximumSize;
+    /**
+     * 过期时间(毫秒)
+     */
+    private final long timeout;
+
+    /**
+     * 构造函数
+     *
+     * @param maximumSize 最大条数
+     * @param timeout     过期时间(毫秒)
+     */
+    public LocalCache(int maximumSize, long timeout) {
+        this.maximumSize = maximumSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 获取
+     *
+     * @param key 键
+     * @return 值(不存在或已过期返回null)
+     */
+    public V get(String key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            map.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * 获取失效版本号(加载前获取 放入时传入)
+     *
+     * @return 失效版本号
+     */
+    public long stamp() {
+        return stamp.get();
+    }
+
+    /**
+     * 放入(加载期间该键发生过失效则不放入)
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间(毫秒，取与缓存过期时间的较小值)
+     * @param stamp   加载前获取的失效版本号
+     */
+    public void put(String key, V value, long timeout, long stamp) {
+        long now = System.currentTimeMillis();
+        if (map.size() >= maximumSize && !map.containsKey(key)) {
+            evict(now);
+        }
+        Entry<V> entry = new Entry<>(value, now + Math.min(timeout, this.timeout));
+        map.put(key, entry);
+        // 放入后再判断 防止与失效操作交错
+        Long removedStamp = removed.get(key);
+        if (stamp < floor || (removedStamp != null && removedStamp > stamp)) {
+            map.remove(key, entry);
+        }
+    }
+
+    /**
+     * 失效
+     *
+     * @param key 键
+     */
+    public void remove(String key) {
+        removed.put(key, stamp.incrementAndGet());
+        map.remove(key);
+        if (removed.size() > maximumSize) {
+            prune(stamp.get());
+        }
+    }
+
+    /**
+     * 全部失效
+     */
+    public void clear() {
+        prune(stamp.incrementAndGet());
+        map.clear();
+    }
+
+    /**
+     * 提高版本号下限，清除已被下限覆盖的失效记录
+     *
+     * @param floor 版本号下限
+     */
+    private synchronized void prune(long floor) {
+        // 先提高下限再清除 防止与放入操作交错
+        this.floor = Math.max(this.floor, floor);
+        removed.values().removeIf(removedStamp -> removedStamp <= floor);
+    }
+
+    /**
+     * 当前条数
+     *
+     * @return 当前条数
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 命中次数
+     *
+     * @return 命中次数
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 淘汰
+     *
+     * @param now 当前时间戳(毫秒)
+     */
+    private void evict(long now) {
+        map.values().removeIf(entry -> entry.expireAt <= now);
+        int target = maximumSize - Math.max(maximumSize / 10, 1);
+        Iterator<Entry<V>> iterator = map.values().iterator();
+        while (map.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 条目
+     *
+     * @param <V> 值类型
+     */
+    private static class Entry<V> {
+
+        /**
+         * 值
+         */
+        private final V value;
+        /**
+         * 过期时间戳(毫秒)
+         */
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+}
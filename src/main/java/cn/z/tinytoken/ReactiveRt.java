@@ -0,0 +1,230 @@
+package cn.z.tinytoken;
+
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveKeyCommands;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <h1>响应式Redis模板</h1>
+ *
+ * <p>
+ * createDate 2026/10/18 14:35:12
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class ReactiveRt {
+
+    /**
+     * 响应式Redis模板
+     */
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    /**
+     * 一次扫描条数
+     */
+    private final long scanCount;
+    /**
+     * 管道一批条数
+     */
+    private final int pipelineBatchSize;
+
+    /**
+     * 构造函数
+     *
+     * @param factory             ReactiveRedisConnectionFactory
+     * @param tinyTokenProperties TinyTokenProperties
+     */
+    public ReactiveRt(ReactiveRedisConnectionFactory factory, TinyTokenProperties tinyTokenProperties) {
+        scanCount = tinyTokenProperties.getScanCount();
+        pipelineBatchSize = tinyTokenProperties.getPipelineBatchSize();
+        // 使用String序列化
+        redisTemplate = new ReactiveRedisTemplate<>(factory, RedisSerializationContext.string());
+    }
+
+    /**
+     * 删除key(del)
+     *
+     * @param key 键
+     * @return 是否成功
+     */
+    public Mono<Boolean> delete(String key) {
+        return redisTemplate.delete(key).map(count -> count > 0);
+    }
+
+    /**
+     * 删除多个key(del)
+     *
+     * @param keys 键列表
+     * @return 成功个数
+     */
+    public Mono<Long> deleteMulti(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return redisTemplate.delete(keys.toArray(new String[0]));
+    }
+
+    /**
+     * 是否存在key(exists)
+     *
+     * @param key 键
+     * @return 是否存在
+     */
+    public Mono<Boolean> exists(String key) {
+        return redisTemplate.hasKey(key);
+    }
+
+    /**
+     * 模糊查询(scan 按需扫描 取消订阅后停止)
+     *
+     * @param match 匹配模式(见{@link Rt#scan(String)})
+     * @return 键
+     */
+    public Flux<String> scan(String match) {
+        return redisTemplate.scan(ScanOptions.scanOptions().match(match).count(scanCount).build());
+    }
+
+    /**
+     * 模糊查询第一个，找到后立即停止扫描(scan)
+     *
+     * @param match   匹配模式(见{@link Rt#scan(String)})
+     * @param timeout 超时时间(毫秒，<=0不限制)
+     * @return 键(不存在为空 超时为ScanTimeoutException错误)
+     */
+    public Mono<String> scanFirst(String match, long timeout) {
+        Mono<String> first = scan(match).next();
+        if (timeout > 0) {
+            first = first.timeout(Duration.ofMillis(timeout), Mono.error(() -> new ScanTimeoutException(match, timeout)));
+        }
+        return first;
+    }
+
+    /**
+     * 指定超时时间(expire)
+     *
+     * @param key     键
+     * @param timeout 超时时间(秒，<=0删除)
+     * @return 是否成功
+     */
+    public Mono<Boolean> expire(String key, long timeout) {
+        return redisTemplate.expire(key, Duration.ofSeconds(timeout));
+    }
+
+    /**
+     * 指定为持久数据(persist)
+     *
+     * @param key 键
+     * @return 是否成功
+     */
+    public Mono<Boolean> persist(String key) {
+        return redisTemplate.persist(key);
+    }
+
+    /**
+     * 获取超时时间(ttl)
+     *
+     * @param key 键
+     * @return 超时时间(秒，-1不过期，-2不存在)
+     */
+    public Mono<Long> getExpire(String key) {
+        ByteBuffer rawKey = ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8));
+        return redisTemplate.execute(connection -> connection.keyCommands().ttl(rawKey)).next();
+    }
+
+    /**
+     * 获取多个超时时间，按批使用管道(ttl)
+     *
+     * @param keys 键列表
+     * @return 超时时间(与键列表顺序相同 秒，-1不过期，-2不存在)
+     */
+    public Flux<Long> getExpireMulti(List<String> keys) {
+        return Flux.fromIterable(keys).buffer(pipelineBatchSize).concatMap(batch -> redisTemplate.execute(connection -> {
+            ReactiveKeyCommands commands = connection.keyCommands();
+            // 一批命令不等待响应全部发出(共享连接上自动管道)，按顺序返回结果
+            return Flux.fromIterable(batch).flatMapSequential(key -> commands.ttl(ByteBuffer.wrap(key.getBytes(StandardCharsets.UTF_8))), batch.size());
+        }));
+    }
+
+    /**
+     * 放入，并设置超时时间(set)
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 超时时间(秒)
+     * @return 是否成功
+     */
+    public Mono<Boolean> set(String key, String value, long timeout) {
+        return redisTemplate.opsForValue().set(key, value, Duration.ofSeconds(timeout));
+    }
+
+    /**
+     * 获取(get)
+     *
+     * @param key 键
+     * @return 值(不存在为空)
+     */
+    public Mono<String> get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    /**
+     * 获取多个(mget)
+     *
+     * @param keys 键列表
+     * @return 值列表(与键列表顺序相同)
+     */
+    public Mono<List<String>> getMulti(List<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    /**
+     * 有序集合按分数获取(zrangebyscore)
+     *
+     * @param key   键
+     * @param range 分数范围
+     * @return 成员
+     */
+    public Flux<String> rangeByScore(String key, Range<Double> range) {
+        return redisTemplate.opsForZSet().rangeByScore(key, range);
+    }
+
+    /**
+     * 执行Lua脚本(evalsha 不存在时eval)
+     *
+     * @param <T>    返回值类型
+     * @param script 脚本
+     * @param keys   键列表
+     * @param args   参数
+     * @return 返回值
+     */
+    public <T> Mono<T> execute(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, keys, Arrays.asList(args)).next();
+    }
+
+    /**
+     * 发布消息(publish)
+     *
+     * @param channel 频道
+     * @param message 消息
+     * @return 接收到消息的客户端数
+     */
+    public Mono<Long> publish(String channel, String message) {
+        return redisTemplate.convertAndSend(channel, message);
+    }
+
+}
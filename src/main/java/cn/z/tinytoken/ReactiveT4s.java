@@ -0,0 +1,752 @@
+package cn.z.tinytoken;
+
+import cn.z.id.Id;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import cn.z.tinytoken.entity.TokenInfo;
+import cn.z.tinytoken.entity.TokenInfoExtra;
+import org.springframework.data.domain.Range;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h1>轻量级权限认证响应式实现</h1>
+ *
+ * <p>
+ * 与T4s使用相同的数据结构，可以混合使用<br>
+ * 不使用本地缓存、续期本地记录，修改时仍会通知其他节点失效<br>
+ * 不支持签名token(启用时启动失败)
+ * </p>
+ *
+ * <h3>id类型:long</h3>
+ * <h3>token类型:String</h3>
+ * <h3>拓展内容类型:String</h3>
+ *
+ * <p>
+ * createDate 2026/10/18 14:52:07
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class ReactiveT4s {
+
+    /**
+     * 轻量级权限认证配置属性
+     */
+    private final TinyTokenProperties tinyTokenProperties;
+    /**
+     * 响应式Redis模板
+     */
+    private final ReactiveRt rt;
+    /**
+     * Redis键
+     */
+    private final RedisKeys redisKeys;
+    /**
+     * token生成器
+     */
+    private final TokenGenerator tokenGenerator;
+    /**
+     * 是否需要通知失效(启用本地缓存、无效token缓存或续期)
+     */
+    private final boolean invalidation;
+    /**
+     * 本地缓存失效频道
+     */
+    private final String nearCacheChannel;
+
+    /**
+     * 构造函数
+     *
+     * @param tinyTokenProperties TinyTokenProperties
+     * @param rt                  ReactiveRt
+     * @throws TinyTokenException 启用了签名token
+     */
+    public ReactiveT4s(TinyTokenProperties tinyTokenProperties, ReactiveRt rt) {
+        if (tinyTokenProperties.getSigned().isEnabled()) {
+            throw new TinyTokenException("ReactiveT4s不支持签名token");
+        }
+        this.tinyTokenProperties = tinyTokenProperties;
+        this.rt = rt;
+        this.redisKeys = new RedisKeys(tinyTokenProperties);
+        this.tokenGenerator = TokenGenerator.of(tinyTokenProperties.getGenerator());
+        this.invalidation = tinyTokenProperties.getNearCache().isEnabled() || tinyTokenProperties.getNegativeCache().isEnabled() || tinyTokenProperties.getRenew().isEnabled();
+        this.nearCacheChannel = tinyTokenProperties.getPrefix() + ":near-cache";
+    }
+
+    /**
+     * 设置token(token使用32位随机字符串 过期时间使用默认值)
+     *
+     * @param id id
+     * @return token
+     */
+    public Mono<String> setToken(long id) {
+        return setToken(id, tinyTokenProperties.getTimeout());
+    }
+
+    /**
+     * 设置token(token使用32位随机字符串)
+     *
+     * @param id      id
+     * @param timeout 过期时间(秒)
+     * @return token
+     */
+    public Mono<String> setToken(long id, long timeout) {
+        return Mono.defer(() -> {
+            String token = RedisKeys.encode(Id.next(), id, tokenGenerator);
+            return set(id, token, "", timeout).thenReturn(token);
+        });
+    }
+
+    /**
+     * 设置token(过期时间使用默认值)
+     *
+     * @param id    id
+     * @param token token
+     * @return 完成
+     */
+    public Mono<Void> setToken(long id, String token) {
+        return setToken(id, token, tinyTokenProperties.getTimeout());
+    }
+
+    /**
+     * 设置token
+     *
+     * @param id      id
+     * @param token   token
+     * @param timeout 过期时间(秒)
+     * @return 完成
+     */
+    public Mono<Void> setToken(long id, String token, long timeout) {
+        return setToken(id, token, "", timeout);
+    }
+
+    /**
+     * 设置token
+     *
+     * @param id      id
+     * @param token   token
+     * @param extra   拓展内容
+     * @param timeout 过期时间(秒)
+     * @return 完成
+     */
+    public Mono<Void> setToken(long id, String token, String extra, long timeout) {
+        return set(id, token, extra, timeout).then(invalidate(Collections.singletonList(token)));
+    }
+
+    /**
+     * 设置token(不通知本地缓存失效)
+     *
+     * @param id      id
+     * @param token   token
+     * @param extra   拓展内容
+     * @param timeout 过期时间(秒)
+     * @return 完成
+     */
+    private Mono<Void> set(long id, String token, String extra, long timeout) {
+        if (redisKeys.isIndexMode()) {
+            return rt.execute(Script.SET, redisKeys.getKeys(id, token), extra, String.valueOf(timeout), String.valueOf(id), token, RedisKeys.now()).then();
+        }
+        return rt.set(redisKeys.getKey(id, token), extra, timeout).then();
+    }
+
+    /**
+     * 设置拓展内容
+     *
+     * @param exchange ServerWebExchange
+     * @param extra    拓展内容
+     * @return 是否成功
+     */
+    public Mono<Boolean> setExtra(ServerWebExchange exchange, String extra) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return setExtra(token, extra);
+        }
+        return Mono.just(false);
+    }
+
+    /**
+     * 设置拓展内容(保留超时时间)
+     *
+     * @param token token
+     * @param extra 拓展内容
+     * @return 是否成功
+     */
+    public Mono<Boolean> setExtra(String token, String extra) {
+        return getKey(token)
+                .flatMap(key -> rt.execute(Script.SET_KEEP_TTL, Collections.singletonList(key), extra))
+                .filter(result -> result == 1)
+                .flatMap(result -> invalidate(Collections.singletonList(token)).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * 清除拓展内容
+     *
+     * @param exchange ServerWebExchange
+     * @return 是否成功
+     */
+    public Mono<Boolean> clearExtra(ServerWebExchange exchange) {
+        return setExtra(exchange, "");
+    }
+
+    /**
+     * 清除拓展内容
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public Mono<Boolean> clearExtra(String token) {
+        return setExtra(token, "");
+    }
+
+    /**
+     * 获取token(不判断是否有效)
+     *
+     * @param exchange ServerWebExchange
+     * @return token(不存在返回null)
+     */
+    public String getToken(ServerWebExchange exchange) {
+        return exchange.getRequest().getHeaders().getFirst(tinyTokenProperties.getHeader());
+    }
+
+    /**
+     * 获取token(判断是否有效)
+     *
+     * @param exchange ServerWebExchange
+     * @return token(不存在或无效为空)
+     */
+    public Mono<String> getTokenValid(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return existByToken(token).filter(exist -> exist).map(exist -> token);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 获取键
+     *
+     * @param token token
+     * @return 键(不存在为空)
+     */
+    private Mono<String> getKey(String token) {
+        if (redisKeys.isMalformed(token)) {
+            return Mono.empty();
+        }
+        return loadKey(token).flatMap(key -> redisKeys.isAbsoluteExpired(token, key) ? deleteAbsoluteExpired(token, key) : Mono.just(key));
+    }
+
+    /**
+     * 从Redis获取键
+     *
+     * @param token token
+     * @return 键(不存在为空)
+     */
+    private Mono<String> loadKey(String token) {
+        if (redisKeys.isIndexMode()) {
+            Mono<String> indexed = rt.get(redisKeys.getIndexKey(token)).map(id -> redisKeys.getKey(id, token));
+            if (RedisKeys.isEncoded(token)) {
+                String key = redisKeys.getKey(RedisKeys.decodeId(token), token);
+                return rt.exists(key).flatMap(exist -> exist ? Mono.just(key) : indexed);
+            }
+            return indexed;
+        }
+        return rt.scanFirst(redisKeys.getMatch(token), tinyTokenProperties.getScanTimeout());
+    }
+
+    /**
+     * 获取键、拓展内容、超时时间(索引模式下32位随机字符串一次往返)
+     *
+     * @param token token
+     * @return [键, 拓展内容, 超时时间(毫秒，-1不过期)](不存在为空)
+     */
+    private Mono<List<?>> getValue(String token) {
+        if (redisKeys.isIndexMode()) {
+            if (redisKeys.isMalformed(token)) {
+                return Mono.empty();
+            }
+            // 自定义token使用索引键
+            Mono<List<?>> value = rt.get(redisKeys.getIndexKey(token)).flatMap(id -> loadValue(redisKeys.getKey(id, token)));
+            if (RedisKeys.isEncoded(token)) {
+                value = loadValue(redisKeys.getKey(RedisKeys.decodeId(token), token)).switchIfEmpty(value);
+            }
+            return value.flatMap(v -> redisKeys.isAbsoluteExpired(token, (String) v.get(0)) ? deleteAbsoluteExpired(token, (String) v.get(0)) : Mono.just(v));
+        }
+        return getKey(token).flatMap(this::loadValue);
+    }
+
+    /**
+     * 从Redis获取拓展内容、超时时间
+     *
+     * @param key 键
+     * @return [键, 拓展内容, 超时时间(毫秒，-1不过期)](不存在为空)
+     */
+    private Mono<List<?>> loadValue(String key) {
+        return rt.execute(Script.GET, Collections.singletonList(key))
+                .filter(value -> !value.isEmpty())
+                .map(value -> Arrays.asList(key, value.get(0), value.get(1)));
+    }
+
+    /**
+     * 删除超过绝对过期时间的token(惰性删除 只删除确认存在的键)
+     *
+     * @param <T>   返回值类型
+     * @param token token
+     * @param key   查找到的键
+     * @return 空
+     */
+    private <T> Mono<T> deleteAbsoluteExpired(String token, String key) {
+        if (redisKeys.isIndexMode()) {
+            return delete(RedisKeys.parseId(key), Collections.singletonList(token)).then(Mono.empty());
+        }
+        return rt.delete(key).then(Mono.empty());
+    }
+
+    /**
+     * 获取键
+     *
+     * @param id id
+     * @return 键
+     */
+    private Flux<String> getKey(long id) {
+        if (redisKeys.isIndexMode()) {
+            return getToken(id).map(token -> redisKeys.getKey(id, token));
+        }
+        return rt.scan(redisKeys.getMatch(id));
+    }
+
+    /**
+     * 获取token
+     *
+     * @param id id
+     * @return token
+     */
+    public Flux<String> getToken(long id) {
+        if (redisKeys.isIndexMode()) {
+            // 已过期的成员由修改操作清除
+            return rt.rangeByScore(redisKeys.getUserKey(id), Range.rightUnbounded(Range.Bound.inclusive(System.currentTimeMillis() / 1000D)));
+        }
+        return getKey(id).map(key -> key.split(":", -1)).filter(split -> split.length == 3).map(split -> split[2]);
+    }
+
+    /**
+     * 获取id
+     *
+     * @param exchange ServerWebExchange
+     * @return id(不存在为空)
+     */
+    public Mono<Long> getId(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return getId(token);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 获取id
+     *
+     * @param token token
+     * @return id(不存在为空)
+     */
+    public Mono<Long> getId(String token) {
+        return getValue(token).map(value -> RedisKeys.parseId((String) value.get(0)));
+    }
+
+    /**
+     * 获取拓展内容
+     *
+     * @param exchange ServerWebExchange
+     * @return 拓展内容(不存在为空)
+     */
+    public Mono<String> getExtra(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return getExtra(token);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 获取拓展内容
+     *
+     * @param token token
+     * @return 拓展内容(不存在为空)
+     */
+    public Mono<String> getExtra(String token) {
+        return getValue(token).map(value -> (String) value.get(1));
+    }
+
+    /**
+     * token是否存在
+     *
+     * @param exchange ServerWebExchange
+     * @return 是否存在
+     */
+    public Mono<Boolean> existByToken(ServerWebExchange exchange) {
+        return getTokenValid(exchange).hasElement();
+    }
+
+    /**
+     * token是否存在
+     *
+     * @param token token
+     * @return 是否存在
+     */
+    public Mono<Boolean> existByToken(String token) {
+        return getKey(token).hasElement();
+    }
+
+    /**
+     * id是否存在
+     *
+     * @param id id
+     * @return 是否存在
+     */
+    public Mono<Boolean> existById(long id) {
+        return getKey(id).hasElements();
+    }
+
+    /**
+     * 删除
+     *
+     * @param exchange ServerWebExchange
+     * @return 是否成功
+     */
+    public Mono<Boolean> deleteByToken(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return deleteByToken(token);
+        }
+        return Mono.just(false);
+    }
+
+    /**
+     * 删除
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public Mono<Boolean> deleteByToken(String token) {
+        return getKey(token).flatMap(key -> {
+            Mono<Boolean> result;
+            if (redisKeys.isIndexMode()) {
+                result = delete(RedisKeys.parseId(key), Collections.singletonList(token)).map(count -> count > 0);
+            } else {
+                result = rt.delete(key);
+            }
+            return result.flatMap(success -> invalidate(Collections.singletonList(token)).thenReturn(success));
+        }).defaultIfEmpty(false);
+    }
+
+    /**
+     * 删除
+     *
+     * @param id id
+     * @return 成功个数
+     */
+    public Mono<Long> deleteById(long id) {
+        return getToken(id).collectList().flatMap(tokens -> {
+            if (tokens.isEmpty()) {
+                return Mono.just(0L);
+            }
+            Mono<Long> count;
+            if (redisKeys.isIndexMode()) {
+                count = delete(id, tokens);
+            } else {
+                List<String> keys = new ArrayList<>(tokens.size());
+                for (String token : tokens) {
+                    keys.add(redisKeys.getKey(id, token));
+                }
+                count = rt.deleteMulti(keys);
+            }
+            return count.flatMap(success -> invalidate(tokens).thenReturn(success));
+        });
+    }
+
+    /**
+     * 删除(索引模式)
+     *
+     * @param id     id
+     * @param tokens token列表
+     * @return 成功个数
+     */
+    private Mono<Long> delete(long id, List<String> tokens) {
+        // 用户键 键 索引键
+        List<String> keys = new ArrayList<>(tokens.size() * 2 + 1);
+        // 键个数 token 当前时间戳
+        List<String> args = new ArrayList<>(tokens.size() + 2);
+        keys.add(redisKeys.getUserKey(id));
+        args.add(String.valueOf(tokens.size()));
+        for (String token : tokens) {
+            keys.add(redisKeys.getKey(id, token));
+            args.add(token);
+        }
+        for (String token : tokens) {
+            if (redisKeys.isIndexed(id, token)) {
+                keys.add(redisKeys.getIndexKey(token));
+            }
+        }
+        args.add(RedisKeys.now());
+        return rt.execute(Script.DELETE, keys, args.toArray(new String[0]));
+    }
+
+    /**
+     * 设置过期时间(过期时间使用默认值)
+     *
+     * @param exchange ServerWebExchange
+     * @return 是否成功
+     */
+    public Mono<Boolean> expire(ServerWebExchange exchange) {
+        return expire(exchange, tinyTokenProperties.getTimeout());
+    }
+
+    /**
+     * 设置过期时间
+     *
+     * @param exchange ServerWebExchange
+     * @param timeout  过期时间(秒)
+     * @return 是否成功
+     */
+    public Mono<Boolean> expire(ServerWebExchange exchange, long timeout) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return expire(token, timeout);
+        }
+        return Mono.just(false);
+    }
+
+    /**
+     * 设置过期时间(过期时间使用默认值)
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public Mono<Boolean> expire(String token) {
+        return expire(token, tinyTokenProperties.getTimeout());
+    }
+
+    /**
+     * 设置过期时间
+     *
+     * @param token   token
+     * @param timeout 过期时间(秒)
+     * @return 是否成功
+     */
+    public Mono<Boolean> expire(String token, long timeout) {
+        return getKey(token).flatMap(key -> {
+            Mono<Boolean> result;
+            if (redisKeys.isIndexMode()) {
+                result = rt.execute(Script.EXPIRE, redisKeys.getKeys(RedisKeys.parseId(key), token), String.valueOf(timeout), token, RedisKeys.now()).map(success -> success == 1);
+            } else {
+                result = rt.expire(key, timeout);
+            }
+            return result.flatMap(success -> invalidate(Collections.singletonList(token)).thenReturn(success));
+        }).defaultIfEmpty(false);
+    }
+
+    /**
+     * 设置永不过期
+     *
+     * @param exchange ServerWebExchange
+     * @return 是否成功
+     */
+    public Mono<Boolean> persist(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return persist(token);
+        }
+        return Mono.just(false);
+    }
+
+    /**
+     * 设置永不过期
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public Mono<Boolean> persist(String token) {
+        return getKey(token).flatMap(key -> {
+            Mono<Boolean> result;
+            if (redisKeys.isIndexMode()) {
+                result = rt.execute(Script.PERSIST, redisKeys.getKeys(RedisKeys.parseId(key), token), token, RedisKeys.now()).map(success -> success == 1);
+            } else {
+                result = rt.persist(key);
+            }
+            return result.flatMap(success -> invalidate(Collections.singletonList(token)).thenReturn(success));
+        }).defaultIfEmpty(false);
+    }
+
+    /**
+     * 获取信息
+     *
+     * @param exchange ServerWebExchange
+     * @return 信息(不存在为空)
+     */
+    public Mono<TokenInfo> getInfoByToken(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return getInfoByToken(token);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 获取信息
+     *
+     * @param token token
+     * @return 信息(不存在为空)
+     */
+    public Mono<TokenInfo> getInfoByToken(String token) {
+        return getValue(token).map(value -> new TokenInfo(RedisKeys.parseId((String) value.get(0)), token, RedisKeys.toSeconds((Long) value.get(2))));
+    }
+
+    /**
+     * 获取信息
+     *
+     * @param id id
+     * @return 信息
+     */
+    public Flux<TokenInfo> getInfoById(long id) {
+        return getInfo(getKey(id), false);
+    }
+
+    /**
+     * 获取所有信息(按需扫描)
+     *
+     * @return 信息
+     */
+    public Flux<TokenInfo> getInfo() {
+        return getInfo(rt.scan(redisKeys.getMatch()), false);
+    }
+
+    /**
+     * 获取所有永不过期的信息(按需扫描)
+     *
+     * @return 信息
+     */
+    public Flux<TokenInfo> getInfoPersist() {
+        return getInfo(rt.scan(redisKeys.getMatch()), true);
+    }
+
+    /**
+     * 获取信息(按批使用管道获取超时时间 保持顺序)
+     *
+     * @param keys    键
+     * @param persist 是否只获取永不过期的
+     * @return 信息
+     */
+    private Flux<TokenInfo> getInfo(Flux<String> keys, boolean persist) {
+        return keys.buffer(tinyTokenProperties.getPipelineBatchSize()).concatMap(batch -> rt.getExpireMulti(batch).collectList().flatMapIterable(expires -> {
+            List<TokenInfo> list = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                long expire = expires.get(i);
+                if (persist ? expire == -1 : expire > -2) {
+                    String[] split = batch.get(i).split(":", -1);
+                    if (split.length == 3) {
+                        list.add(new TokenInfo(Long.parseLong(split[1]), split[2], expire));
+                    }
+                }
+            }
+            return list;
+        }));
+    }
+
+    /**
+     * 获取信息拓展
+     *
+     * @param exchange ServerWebExchange
+     * @return 信息拓展(不存在为空)
+     */
+    public Mono<TokenInfoExtra> getInfoExtraByToken(ServerWebExchange exchange) {
+        String token = getToken(exchange);
+        if (token != null) {
+            return getInfoExtraByToken(token);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 获取信息拓展
+     *
+     * @param token token
+     * @return 信息拓展(不存在为空)
+     */
+    public Mono<TokenInfoExtra> getInfoExtraByToken(String token) {
+        return getValue(token).map(value -> new TokenInfoExtra(RedisKeys.parseId((String) value.get(0)), token, (String) value.get(1), RedisKeys.toSeconds((Long) value.get(2))));
+    }
+
+    /**
+     * 获取信息拓展
+     *
+     * @param id id
+     * @return 信息拓展
+     */
+    public Flux<TokenInfoExtra> getInfoExtraById(long id) {
+        return getInfoExtra(getKey(id), false);
+    }
+
+    /**
+     * 获取所有信息拓展(按需扫描)
+     *
+     * @return 信息拓展
+     */
+    public Flux<TokenInfoExtra> getInfoExtra() {
+        return getInfoExtra(rt.scan(redisKeys.getMatch()), false);
+    }
+
+    /**
+     * 获取所有永不过期的信息拓展(按需扫描)
+     *
+     * @return 信息拓展
+     */
+    public Flux<TokenInfoExtra> getInfoExtraPersist() {
+        return getInfoExtra(rt.scan(redisKeys.getMatch()), true);
+    }
+
+    /**
+     * 获取信息拓展(按批获取拓展内容、使用管道获取超时时间 保持顺序)
+     *
+     * @param keys    键
+     * @param persist 是否只获取永不过期的
+     * @return 信息拓展
+     */
+    private Flux<TokenInfoExtra> getInfoExtra(Flux<String> keys, boolean persist) {
+        return keys.buffer(tinyTokenProperties.getPipelineBatchSize()).concatMap(batch -> Mono.zip(rt.getMulti(batch), rt.getExpireMulti(batch).collectList()).flatMapIterable(tuple -> {
+            List<String> extras = tuple.getT1();
+            List<Long> expires = tuple.getT2();
+            List<TokenInfoExtra> list = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                long expire = expires.get(i);
+                if (persist ? expire == -1 : expire > -2) {
+                    String[] split = batch.get(i).split(":", -1);
+                    if (split.length == 3) {
+                        list.add(new TokenInfoExtra(Long.parseLong(split[1]), split[2], extras.get(i), expire));
+                    }
+                }
+            }
+            return list;
+        }));
+    }
+
+    /**
+     * 通知本地缓存失效(所有节点)
+     *
+     * @param tokens token列表
+     * @return 完成
+     */
+    private Mono<Void> invalidate(List<String> tokens) {
+        if (invalidation) {
+            return rt.publish(nearCacheChannel, String.join("\n", tokens)).then();
+        }
+        return Mono.empty();
+    }
+
+}
@@ -0,0 +1,306 @@
+package cn.z.tinytoken;
+
+import cn.z.id.Id;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties.LookupMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>Redis键</h1>
+ *
+ * <p>
+ * 键 前缀:id:token 值为拓展内容<br>
+ * 索引键 前缀:t:token 值为id(索引模式 自定义token)<br>
+ * 用户键 前缀:u:id 有序集合(索引模式)<br>
+ * T4s、ReactiveT4s共用
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 14:20:36
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+final class RedisKeys {
+
+    /**
+     * 键中id的匹配模式(排除索引键、用户键)
+     */
+    private static final String ID_MATCH = "[-0-9]*";
+    /**
+     * 前缀
+     */
+    private final String prefix;
+    /**
+     * 是否为索引模式
+     */
+    private final boolean indexMode;
+    /**
+     * 绝对过期时间(毫秒 0不限制)
+     */
+    private final long absoluteTimeout;
+    /**
+     * 是否启用token格式预校验
+     */
+    private final boolean validation;
+    /**
+     * 最大时长(毫秒 0不校验)
+     */
+    private final long maxAge;
+    /**
+     * 允许的时钟偏差(毫秒)
+     */
+    private final long clockSkew;
+
+    /**
+     * 构造函数
+     *
+     * @param tinyTokenProperties TinyTokenProperties
+     */
+    RedisKeys(TinyTokenProperties tinyTokenProperties) {
+        this.prefix = tinyTokenProperties.getPrefix();
+        this.indexMode = tinyTokenProperties.getLookupMode() == LookupMode.INDEX;
+        this.absoluteTimeout = tinyTokenProperties.getAbsoluteTimeout() * 1000;
+        TinyTokenProperties.Validation validationProperties = tinyTokenProperties.getValidation();
+        this.validation = validationProperties.isEnabled();
+        this.maxAge = validationProperties.getMaxAge() * 1000;
+        this.clockSkew = validationProperties.getClockSkew();
+    }
+
+    /**
+     * 获取键
+     *
+     * @param id    id
+     * @param token token
+     * @return 键
+     */
+    String getKey(Object id, String token) {
+        return prefix + ":" + id + ":" + token;
+    }
+
+    /**
+     * 获取索引键
+     *
+     * @param token token
+     * @return 索引键
+     */
+    String getIndexKey(String token) {
+        return prefix + ":t:" + token;
+    }
+
+    /**
+     * 获取用户键
+     *
+     * @param id id
+     * @return 用户键
+     */
+    String getUserKey(long id) {
+        return prefix + ":u:" + id;
+    }
+
+    /**
+     * 获取脚本使用的键列表
+     *
+     * @param id    id
+     * @param token token
+     * @return [键, 用户键, 索引键(需要索引时)]
+     */
+    List<String> getKeys(long id, String token) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add(getKey(id, token));
+        keys.add(getUserKey(id));
+        if (isIndexed(id, token)) {
+            keys.add(getIndexKey(token));
+        }
+        return keys;
+    }
+
+    /**
+     * 获取通过token扫描键的匹配模式
+     *
+     * @param token token
+     * @return 匹配模式
+     */
+    String getMatch(String token) {
+        return prefix + ":" + ID_MATCH + ":" + token;
+    }
+
+    /**
+     * 获取通过id扫描键的匹配模式
+     *
+     * @param id id
+     * @return 匹配模式
+     */
+    String getMatch(long id) {
+        return prefix + ":" + id + ":*";
+    }
+
+    /**
+     * 获取扫描所有键的匹配模式
+     *
+     * @return 匹配模式
+     */
+    String getMatch() {
+        return getMatch("*");
+    }
+
+    /**
+     * 是否为索引模式
+     *
+     * @return 是否为索引模式
+     */
+    boolean isIndexMode() {
+        return indexMode;
+    }
+
+    /**
+     * 是否需要索引(索引模式下 token不是由id生成的32位随机字符串)
+     *
+     * @param id    id
+     * @param token token
+     * @return 是否需要索引
+     */
+    boolean isIndexed(long id, String token) {
+        return indexMode && !(isEncoded(token) && decodeId(token) == id);
+    }
+
+    /**
+     * token格式是否错误(启用预校验时 不是32位随机字符串或生成时间不合理)
+     *
+     * @param token token
+     * @return 格式是否错误
+     */
+    boolean isMalformed(String token) {
+        if (!validation) {
+            return false;
+        }
+        if (!isEncoded(token)) {
+            return true;
+        }
+        long timestamp = Id.parse(decodeNumber(token))[0];
+        long now = System.currentTimeMillis();
+        return timestamp > now + clockSkew || (maxAge > 0 && timestamp < now - maxAge);
+    }
+
+    /**
+     * 是否超过绝对过期时间(查找到的键就是32位随机字符串解析出的键 生成时间早于绝对过期时间之前)<br>
+     * 只根据token判断时，同样格式的自定义token会解析出无意义的生成时间
+     *
+     * @param token token
+     * @param key   查找到的键
+     * @return 是否超过绝对过期时间
+     */
+    boolean isAbsoluteExpired(String token, String key) {
+        return absoluteTimeout > 0 && isEncoded(token) && isAbsoluteExpired(decodeNumber(token)) && key.equals(getKey(decodeId(token), token));
+    }
+
+    /**
+     * 是否超过绝对过期时间
+     *
+     * @param n 生成token时的数字(Id.next())
+     * @return 是否超过绝对过期时间
+     */
+    boolean isAbsoluteExpired(long n) {
+        return absoluteTimeout > 0 && Id.parse(n)[0] < System.currentTimeMillis() - absoluteTimeout;
+    }
+
+    /**
+     * 当前时间戳(秒)
+     *
+     * @return 当前时间戳(秒)
+     */
+    static String now() {
+        return String.valueOf(System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 解析键中的id
+     *
+     * @param key 键
+     * @return id
+     */
+    static long parseId(String key) {
+        return Long.parseLong(key.split(":", -1)[1]);
+    }
+
+    /**
+     * 超时时间转换为秒(与ttl相同 四舍五入)
+     *
+     * @param expire 超时时间(毫秒，-1不过期)
+     * @return 超时时间(秒，-1不过期)
+     */
+    static long toSeconds(long expire) {
+        if (expire < 0) {
+            return expire;
+        }
+        return (expire + 500) / 1000;
+    }
+
+    /**
+     * 生成32位随机字符串
+     *
+     * @param n         数字
+     * @param id        id
+     * @param generator token生成器
+     * @return 32位随机字符串
+     */
+    static String encode(long n, long id, TokenGenerator generator) {
+        char[] chars = new char[32];
+        long random = generator.nextRandom();
+        Base62.encode(random, chars, 0, 10);
+        Base62.encode(n ^ random, chars, 10, 11);
+        // 负数id无法编码 与旧版本相同补0(索引模式下使用索引)
+        Base62.encode(Math.max(n ^ id, 0), chars, 21, 11);
+        return new String(chars);
+    }
+
+    /**
+     * 解析32位随机字符串中的数字(不创建子字符串)
+     *
+     * @param s 32位随机字符串
+     * @return 数字
+     */
+    static long decodeNumber(CharSequence s) {
+        return Base62.decode(s, 0, 10) ^ Base62.decode(s, 10, 11);
+    }
+
+    /**
+     * 解析32位随机字符串中的id(不创建子字符串)
+     *
+     * @param s 32位随机字符串
+     * @return id
+     */
+    static long decodeId(CharSequence s) {
+        return decodeNumber(s) ^ Base62.decode(s, 21, 11);
+    }
+
+    /**
+     * 是否为32位随机字符串格式(长度为32 且只包含Base62字符)
+     *
+     * @param s 字符串
+     * @return 是否为32位随机字符串格式
+     */
+    static boolean isEncoded(String s) {
+        return s.length() == 32 && isBase62(s);
+    }
+
+    /**
+     * 是否只包含Base62字符
+     *
+     * @param s 字符串
+     * @return 是否只包含Base62字符
+     */
+    static boolean isBase62(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -1,15 +1,36 @@
 package cn.z.tinytoken;
 
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ConvertingCursor;
 import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * <h1>Redis模板</h1>
@@ -21,19 +42,58 @@ import java.util.concurrent.TimeUnit;
  * @author ALI[ali-k@foxmail.com]
  * @since 1.0.0
  **/
-public class Rt {
+public class Rt implements DisposableBean {
 
     /**
      * Redis模板
      */
     private final RedisTemplate<String, Object> redisTemplate;
+    /**
+     * 一次扫描条数
+     */
+    private final long scanCount;
+    /**
+     * 管道一批条数
+     */
+    private final int pipelineBatchSize;
+    /**
+     * Redis连接工厂
+     */
+    private final RedisConnectionFactory factory;
+    /**
+     * 消息监听容器(订阅时创建)
+     */
+    private RedisMessageListenerContainer container;
+    /**
+     * 是否支持KEEPTTL(Redis 6.0+ 首次使用时获取)
+     */
+    private volatile Boolean keepTtl;
+    /**
+     * 扫描返回的键个数
+     */
+    private final LongAdder scannedKeys = new LongAdder();
 
     /**
-     * 构造函数(自动注入)
+     * 构造函数(使用默认配置)
      *
      * @param factory RedisConnectionFactory
      */
     public Rt(RedisConnectionFactory factory) {
+        this(factory, new TinyTokenProperties());
+    }
+
+    /**
+     * 构造函数(自动注入)
+     *
+     * @param factory             RedisConnectionFactory
+     * @param tinyTokenProperties TinyTokenProperties
+     * @since 1.8.0
+     */
+    @Autowired
+    public Rt(RedisConnectionFactory factory, TinyTokenProperties tinyTokenProperties) {
+        this.factory = factory;
+        scanCount = tinyTokenProperties.getScanCount();
+        pipelineBatchSize = tinyTokenProperties.getPipelineBatchSize();
         redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(factory);
         // 使用String序列化
@@ -62,7 +122,40 @@ public class Rt {
     }
 
     /**
-     * 模糊查询，一次扫描1000条(scan)
+     * 删除多个key，按批使用管道(del)
+     *
+     * @param keys 键列表
+     * @return 是否成功列表(与键列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> deleteEach(Collection<String> keys) {
+        return toBoolean(pipelined(keys, (connection, key) -> connection.keyCommands().del(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * 是否存在key(exists)
+     *
+     * @param key 键
+     * @return 是否存在
+     * @since 1.8.0
+     */
+    public Boolean exists(String key) {
+        return redisTemplate.hasKey(key);
+    }
+
+    /**
+     * 多个key是否存在，按批使用管道(exists)
+     *
+     * @param keys 键列表
+     * @return 是否存在列表(与键列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> existsMulti(Collection<String> keys) {
+        return toBoolean(pipelined(keys, (connection, key) -> connection.keyCommands().exists(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * 模糊查询(scan)
      *
      * @param match 匹配模式<br>
      *              * : 匹配0+个任意字符<br>
@@ -75,7 +168,7 @@ public class Rt {
      */
     public List<String> scan(String match) {
         List<String> list = new ArrayList<>();
-        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(match).count(1000).build())) {
+        try (Cursor<String> cursor = scanCursor(match)) {
             while (cursor.hasNext()) {
                 list.add(cursor.next());
             }
@@ -83,6 +176,69 @@ public class Rt {
         return list;
     }
 
+    /**
+     * 模糊查询，返回游标(scan)
+     *
+     * @param match 匹配模式(见{@link #scan(String)})
+     * @return 游标(使用后需要关闭 取出的键计入扫描返回的键个数)
+     * @since 1.8.0
+     */
+    public Cursor<String> scanCursor(String match) {
+        return new ConvertingCursor<>(redisTemplate.scan(ScanOptions.scanOptions().match(match).count(scanCount).build()), key -> {
+            scannedKeys.increment();
+            return key;
+        });
+    }
+
+    /**
+     * 模糊查询，达到个数上限后停止扫描(scan)
+     *
+     * @param match   匹配模式(见{@link #scan(String)})
+     * @param limit   个数上限(<=0不限制)
+     * @param timeout 超时时间(毫秒，<=0不限制 每取出一个键时检查)
+     * @return 键列表
+     * @throws ScanTimeoutException 超时(不能确定是否还有其他键)
+     * @since 1.8.0
+     */
+    public List<String> scan(String match, int limit, long timeout) {
+        List<String> list = new ArrayList<>();
+        long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+        try (Cursor<String> cursor = scanCursor(match)) {
+            // 每次取出一个键后判断是否达到上限或超时
+            while ((limit <= 0 || list.size() < limit) && cursor.hasNext()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new ScanTimeoutException(match, timeout);
+                }
+                list.add(cursor.next());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 模糊查询第一个，找到后立即停止扫描(scan)
+     *
+     * @param match   匹配模式(见{@link #scan(String)})
+     * @param timeout 超时时间(毫秒，<=0不限制 每取出一个键时检查)
+     * @return 键(不存在返回null)
+     * @throws ScanTimeoutException 超时(不能确定是否存在)
+     * @since 1.8.0
+     */
+    public String scanFirst(String match, long timeout) {
+        List<String> list = scan(match, 1, timeout);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * 扫描返回的键个数(累计 包含所有通过scanCursor取出的键)
+     *
+     * @return 键个数
+     * @since 1.8.0
+     */
+    public long getScannedKeys() {
+        return scannedKeys.sum();
+    }
+
     /**
      * 指定超时时间(expire)
      *
@@ -104,6 +260,29 @@ public class Rt {
         return redisTemplate.persist(key);
     }
 
+    /**
+     * 多个key指定超时时间，按批使用管道(expire)
+     *
+     * @param keys    键列表
+     * @param timeout 超时时间(秒，<=0删除)
+     * @return 是否成功列表(与键列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> expireMulti(Collection<String> keys, long timeout) {
+        return toBoolean(pipelined(keys, (connection, key) -> connection.keyCommands().expire(key.getBytes(StandardCharsets.UTF_8), timeout)));
+    }
+
+    /**
+     * 多个key指定为持久数据，按批使用管道(persist)
+     *
+     * @param keys 键列表
+     * @return 是否成功列表(与键列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> persistMulti(Collection<String> keys) {
+        return toBoolean(pipelined(keys, (connection, key) -> connection.keyCommands().persist(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
     /**
      * 获取超时时间(ttl)
      *
@@ -114,6 +293,60 @@ public class Rt {
         return redisTemplate.getExpire(key);
     }
 
+    /**
+     * 获取多个超时时间，按批使用管道(ttl)
+     *
+     * @param keys 键列表
+     * @return 超时时间列表(秒 ， - 1不过期 ， - 2不存在)
+     * @since 1.8.0
+     */
+    public List<Long> getExpireMulti(Collection<String> keys) {
+        List<Long> list = new ArrayList<>(keys.size());
+        List<byte[]> batch = new ArrayList<>(Math.min(keys.size(), pipelineBatchSize));
+        for (String key : keys) {
+            batch.add(key.getBytes(StandardCharsets.UTF_8));
+            if (batch.size() == pipelineBatchSize) {
+                getExpireMulti(batch, list);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            getExpireMulti(batch, list);
+        }
+        return list;
+    }
+
+    /**
+     * 使用管道获取一批超时时间(ttl)
+     *
+     * @param batch 一批键
+     * @param list  超时时间列表
+     * @since 1.8.0
+     */
+    private void getExpireMulti(List<byte[]> batch, List<Long> list) {
+        List<Object> result = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] key : batch) {
+                connection.keyCommands().ttl(key);
+            }
+            return null;
+        });
+        for (Object expire : result) {
+            list.add((Long) expire);
+        }
+    }
+
+    /**
+     * 获取超时时间(pttl)
+     *
+     * @param key  键
+     * @param unit 时间单位
+     * @return 超时时间(-1不过期 ， - 2不存在)
+     * @since 1.8.0
+     */
+    public Long getExpire(String key, TimeUnit unit) {
+        return redisTemplate.getExpire(key, unit);
+    }
+
     /**
      * 放入(set)
      *
@@ -138,6 +371,51 @@ public class Rt {
         redisTemplate.opsForValue().set(key, value, timeout, TimeUnit.SECONDS);
     }
 
+    /**
+     * 放入多个，并设置超时时间，按批使用管道(setEX)
+     *
+     * @param map     键和值(已存在会被覆盖)
+     * @param timeout 超时时间(秒，必须>0)
+     * @since 1.8.0
+     */
+    public void setMulti(Map<String, String> map, long timeout) {
+        pipelined(map.entrySet(), (connection, entry) -> connection.stringCommands().setEx(
+                entry.getKey().getBytes(StandardCharsets.UTF_8), timeout, entry.getValue().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 放入，保留超时时间(set keepttl xx Redis 6.0以下使用Lua脚本)
+     *
+     * @param key   键
+     * @param value 值
+     * @return 是否成功(键不存在返回false 不会创建)
+     * @since 1.8.0
+     */
+    public boolean setKeepTtl(String key, String value) {
+        if (isKeepTtl()) {
+            return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                    key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8), Expiration.keepTtl(), RedisStringCommands.SetOption.SET_IF_PRESENT)));
+        }
+        return execute(Script.SET_KEEP_TTL, Collections.singletonList(key), value) == 1;
+    }
+
+    /**
+     * 是否支持KEEPTTL
+     *
+     * @return 是否支持KEEPTTL(Redis 6.0+)
+     * @since 1.8.0
+     */
+    private boolean isKeepTtl() {
+        Boolean result = keepTtl;
+        if (result == null) {
+            Properties info = redisTemplate.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("server"));
+            String version = info != null ? info.getProperty("redis_version") : null;
+            result = version != null && Integer.parseInt(version.split("\\.")[0]) >= 6;
+            keepTtl = result;
+        }
+        return result;
+    }
+
     /**
      * 获取(get)
      *
@@ -148,6 +426,17 @@ public class Rt {
         return redisTemplate.opsForValue().get(key);
     }
 
+    /**
+     * 获取原始字节(get 位图等二进制值)
+     *
+     * @param key 键
+     * @return 值(不存在返回null)
+     * @since 1.8.0
+     */
+    public byte[] getBytes(String key) {
+        return redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
     /**
      * 获取多个(mGet)
      *
@@ -158,4 +447,176 @@ public class Rt {
         return redisTemplate.opsForValue().multiGet(keys);
     }
 
+    /**
+     * 获取有序集合指定分数范围的成员(zRangeByScore)
+     *
+     * @param key 键
+     * @param min 最小分数(包含)
+     * @param max 最大分数(包含)
+     * @return 成员列表
+     * @since 1.8.0
+     */
+    public Set<Object> rangeByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().rangeByScore(key, min, max);
+    }
+
+    /**
+     * 获取有序集合指定分数范围的成员和分数(zRangeByScore withscores)
+     *
+     * @param key 键
+     * @param min 最小分数(包含)
+     * @param max 最大分数(包含)
+     * @return 成员和分数列表
+     * @since 1.8.0
+     */
+    public Set<ZSetOperations.TypedTuple<Object>> rangeByScoreWithScores(String key, double min, double max) {
+        return redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max);
+    }
+
+    /**
+     * 获取有序集合成员的分数(zScore)
+     *
+     * @param key    键
+     * @param member 成员
+     * @return 分数(不存在返回null)
+     * @since 1.8.0
+     */
+    public Double score(String key, String member) {
+        return redisTemplate.opsForZSet().score(key, member);
+    }
+
+    /**
+     * 执行Lua脚本(evalsha)
+     *
+     * @param <T>    返回值类型
+     * @param script 脚本
+     * @param keys   键列表
+     * @param args   参数
+     * @return 返回值
+     * @since 1.8.0
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, keys, (Object[]) args);
+    }
+
+    /**
+     * 执行多次Lua脚本，按批使用管道(script load + evalsha)
+     *
+     * @param script 脚本(返回值为整数)
+     * @param keys   每次的键列表
+     * @param args   每次的参数
+     * @return 返回值列表(与键列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Long> executeMulti(RedisScript<Long> script, List<List<String>> keys, List<String[]> args) {
+        List<Long> list = new ArrayList<>(keys.size());
+        byte[] body = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < keys.size(); from += pipelineBatchSize) {
+            int to = Math.min(from + pipelineBatchSize, keys.size());
+            int start = from;
+            List<Object> result = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                // 先加载脚本 保证evalsha不会找不到
+                connection.scriptingCommands().scriptLoad(body);
+                for (int i = start; i < to; i++) {
+                    List<String> key = keys.get(i);
+                    String[] arg = args.get(i);
+                    byte[][] keysAndArgs = new byte[key.size() + arg.length][];
+                    for (int j = 0; j < key.size(); j++) {
+                        keysAndArgs[j] = key.get(j).getBytes(StandardCharsets.UTF_8);
+                    }
+                    for (int j = 0; j < arg.length; j++) {
+                        keysAndArgs[key.size() + j] = arg[j].getBytes(StandardCharsets.UTF_8);
+                    }
+                    connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.INTEGER, key.size(), keysAndArgs);
+                }
+                return null;
+            });
+            for (int i = 1; i < result.size(); i++) {
+                list.add((Long) result.get(i));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 按批使用管道执行命令
+     *
+     * @param <T>     元素类型
+     * @param items   元素列表
+     * @param command 每个元素执行的命令
+     * @return 返回值列表(与元素列表顺序一致)
+     * @since 1.8.0
+     */
+    private <T> List<Object> pipelined(Collection<T> items, BiConsumer<RedisConnection, T> command) {
+        List<T> all = new ArrayList<>(items);
+        List<Object> list = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += pipelineBatchSize) {
+            List<T> batch = all.subList(from, Math.min(from + pipelineBatchSize, all.size()));
+            list.addAll(redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (T item : batch) {
+                    command.accept(connection, item);
+                }
+                return null;
+            }));
+        }
+        return list;
+    }
+
+    /**
+     * 返回值转换为是否成功(true或大于0的整数)
+     *
+     * @param results 返回值列表
+     * @return 是否成功列表
+     * @since 1.8.0
+     */
+    private static List<Boolean> toBoolean(List<Object> results) {
+        List<Boolean> list = new ArrayList<>(results.size());
+        for (Object result : results) {
+            list.add(Boolean.TRUE.equals(result) || (result instanceof Long && (Long) result > 0));
+        }
+        return list;
+    }
+
+    /**
+     * 发布消息(publish)
+     *
+     * @param channel 频道
+     * @param message 消息
+     * @since 1.8.0
+     */
+    public void publish(String channel, String message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 订阅频道(subscribe)
+     *
+     * @param channel  频道
+     * @param listener 消息监听器
+     * @since 1.8.0
+     */
+    public synchronized void subscribe(String channel, Consumer<String> listener) {
+        if (container == null) {
+            container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(factory);
+            container.afterPropertiesSet();
+            container.start();
+        }
+        container.addMessageListener((message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+
+    /**
+     * 关闭消息监听容器
+     *
+     * @throws Exception 异常
+     * @since 1.8.0
+     */
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (container != null) {
+            container.destroy();
+            container = null;
+        }
+    }
+
 }
@@ -0,0 +1,29 @@
+package cn.z.tinytoken;
+
+/**
+ * <h1>扫描超时异常类</h1>
+ *
+ * <p>
+ * 扫描模式下通过token查找键超过扫描超时时间，此时不能确定键是否存在
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 21:36:52
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class ScanTimeoutException extends TinyTokenException {
+
+    /**
+     * 扫描超时异常
+     *
+     * @param match   匹配模式
+     * @param timeout 超时时间(毫秒)
+     */
+    public ScanTimeoutException(String match, long timeout) {
+        super("扫描" + match + "超时(" + timeout + "毫秒)");
+    }
+
+}
@@ -0,0 +1,225 @@
+package cn.z.tinytoken;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * <h1>Lua脚本</h1>
+ *
+ * <p>
+ * 需要多次往返或需要原子性的操作都放在同一个脚本中执行<br>
+ * 通过evalsha执行，脚本在Redis中只加载一次<br>
+ * 键、用户键、索引键需要在同一个脚本中修改，保证原子性<br>
+ * 用户键为有序集合，成员为token，分数为过期时间戳(秒，+inf不过期)
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 09:12:40
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class Script {
+
+    private Script() {
+    }
+
+    /**
+     * 刷新用户键(清除已过期的token 超时时间设置为最晚过期的token)
+     */
+    private static final String REFRESH = "local function refresh(user, now)\n" +
+            "  redis.call('ZREMRANGEBYSCORE', user, '-inf', now)\n" +
+            "  local last = redis.call('ZRANGE', user, -1, -1, 'WITHSCORES')\n" +
+            "  if #last == 0 then\n" +
+            "    return\n" +
+            "  end\n" +
+            "  if last[2] == 'inf' then\n" +
+            "    redis.call('PERSIST', user)\n" +
+            "  else\n" +
+            "    redis.call('EXPIREAT', user, last[2])\n" +
+            "  end\n" +
+            "end\n";
+
+    /**
+     * 放入，并设置超时时间<br>
+     * KEYS[1] 键<br>
+     * KEYS[2] 用户键<br>
+     * KEYS[3] 索引键(可选)<br>
+     * ARGV[1] 拓展内容<br>
+     * ARGV[2] 超时时间(秒)<br>
+     * ARGV[3] id<br>
+     * ARGV[4] token<br>
+     * ARGV[5] 当前时间戳(秒)<br>
+     * 返回 1
+     */
+    public static final RedisScript<Long> SET = new DefaultRedisScript<>(REFRESH +
+            "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])\n" +
+            "if #KEYS > 2 then\n" +
+            "  redis.call('SET', KEYS[3], ARGV[3], 'EX', ARGV[2])\n" +
+            "end\n" +
+            "redis.call('ZADD', KEYS[2], tonumber(ARGV[5]) + tonumber(ARGV[2]), ARGV[4])\n" +
+            "refresh(KEYS[2], ARGV[5])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 指定超时时间<br>
+     * KEYS[1] 键<br>
+     * KEYS[2] 用户键<br>
+     * KEYS[3] 索引键(可选)<br>
+     * ARGV[1] 超时时间(秒，<=0删除)<br>
+     * ARGV[2] token<br>
+     * ARGV[3] 当前时间戳(秒)<br>
+     * 返回 是否成功(1成功 0失败)
+     */
+    public static final RedisScript<Long> EXPIRE = new DefaultRedisScript<>(REFRESH +
+            "local result = redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "if result == 1 then\n" +
+            "  if #KEYS > 2 then\n" +
+            "    redis.call('EXPIRE', KEYS[3], ARGV[1])\n" +
+            "  end\n" +
+            "  if tonumber(ARGV[1]) > 0 then\n" +
+            "    redis.call('ZADD', KEYS[2], tonumber(ARGV[3]) + tonumber(ARGV[1]), ARGV[2])\n" +
+            "  else\n" +
+            "    redis.call('ZREM', KEYS[2], ARGV[2])\n" +
+            "  end\n" +
+            "  refresh(KEYS[2], ARGV[3])\n" +
+            "end\n" +
+            "return result", Long.class);
+
+    /**
+     * 指定为持久数据<br>
+     * KEYS[1] 键<br>
+     * KEYS[2] 用户键<br>
+     * KEYS[3] 索引键(可选)<br>
+     * ARGV[1] token<br>
+     * ARGV[2] 当前时间戳(秒)<br>
+     * 返回 是否成功(1成功 0失败)
+     */
+    public static final RedisScript<Long> PERSIST = new DefaultRedisScript<>(REFRESH +
+            "local result = redis.call('PERSIST', KEYS[1])\n" +
+            "if result == 1 then\n" +
+            "  if #KEYS > 2 then\n" +
+            "    redis.call('PERSIST', KEYS[3])\n" +
+            "  end\n" +
+            "  redis.call('ZADD', KEYS[2], '+inf', ARGV[1])\n" +
+            "  refresh(KEYS[2], ARGV[2])\n" +
+            "end\n" +
+            "return result", Long.class);
+
+    /**
+     * 续期(剩余过期时间低于阈值时才设置过期时间)<br>
+     * KEYS[1] 键<br>
+     * KEYS[2] 用户键(索引模式)<br>
+     * KEYS[3] 索引键(可选)<br>
+     * ARGV[1] 过期时间(秒)<br>
+     * ARGV[2] token<br>
+     * ARGV[3] 当前时间戳(秒)<br>
+     * ARGV[4] 阈值(毫秒)<br>
+     * 返回 续期后的剩余过期时间(毫秒，-1不过期，-2不存在)
+     */
+    public static final RedisScript<Long> RENEW = new DefaultRedisScript<>(REFRESH +
+            "local ttl = redis.call('PTTL', KEYS[1])\n" +
+            "if ttl < 0 or ttl >= tonumber(ARGV[4]) then\n" +
+            "  return ttl\n" +
+            "end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "if #KEYS > 2 then\n" +
+            "  redis.call('EXPIRE', KEYS[3], ARGV[1])\n" +
+            "end\n" +
+            "if #KEYS > 1 then\n" +
+            "  redis.call('ZADD', KEYS[2], tonumber(ARGV[3]) + tonumber(ARGV[1]), ARGV[2])\n" +
+            "  refresh(KEYS[2], ARGV[3])\n" +
+            "end\n" +
+            "return tonumber(ARGV[1]) * 1000", Long.class);
+
+    /**
+     * 删除<br>
+     * KEYS[1] 用户键<br>
+     * KEYS[2..n+1] 键<br>
+     * KEYS[n+2..] 索引键<br>
+     * ARGV[1] 键个数n<br>
+     * ARGV[2..n+1] 键对应的token<br>
+     * ARGV[n+2] 当前时间戳(秒)<br>
+     * 返回 键成功个数
+     */
+    public static final RedisScript<Long> DELETE = new DefaultRedisScript<>(REFRESH +
+            "local n = tonumber(ARGV[1])\n" +
+            "local count = 0\n" +
+            "for i = 2, #KEYS do\n" +
+            "  local result = redis.call('DEL', KEYS[i])\n" +
+            "  if i <= n + 1 then\n" +
+            "    count = count + result\n" +
+            "    redis.call('ZREM', KEYS[1], ARGV[i])\n" +
+            "  end\n" +
+            "end\n" +
+            "refresh(KEYS[1], ARGV[n + 2])\n" +
+            "return count", Long.class);
+
+    /**
+     * 撤销签名token(同时写入时间桶的布隆过滤器位图 位图过期时间固定为时间桶结束)<br>
+     * KEYS[1] 撤销列表键<br>
+     * KEYS[2] 布隆过滤器位图键<br>
+     * ARGV[1] 序号<br>
+     * ARGV[2] 过期时间戳(秒)<br>
+     * ARGV[3] 当前时间戳(秒)<br>
+     * ARGV[4] 时间桶结束时间戳(秒)<br>
+     * ARGV[5...] 位图位置<br>
+     * 返回 1
+     */
+    public static final RedisScript<Long> REVOKE = new DefaultRedisScript<>(REFRESH +
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])\n" +
+            "refresh(KEYS[1], ARGV[3])\n" +
+            "for i = 5, #ARGV do\n" +
+            "  redis.call('SETBIT', KEYS[2], ARGV[i], 1)\n" +
+            "end\n" +
+            "redis.call('EXPIREAT', KEYS[2], ARGV[4])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 按id撤销签名token(清除已过期的 超时时间设置为最晚的保留截止时间)<br>
+     * KEYS[1] 按id撤销键<br>
+     * ARGV[1] 成员(id:撤销时间戳(毫秒))<br>
+     * ARGV[2] 保留截止时间戳(秒 之前签发的token此时已全部过期)<br>
+     * ARGV[3] 当前时间戳(秒)<br>
+     * 返回 1
+     */
+    public static final RedisScript<Long> REVOKE_ID = new DefaultRedisScript<>(REFRESH +
+            "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])\n" +
+            "refresh(KEYS[1], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 获取拓展内容和超时时间<br>
+     * KEYS[1] 键<br>
+     * 返回 [拓展内容, 超时时间(毫秒，-1不过期)](不存在返回[])
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> GET = new DefaultRedisScript<>(
+            "local ttl = redis.call('PTTL', KEYS[1])\n" +
+                    "if ttl == -2 then\n" +
+                    "  return {}\n" +
+                    "end\n" +
+                    "return {redis.call('GET', KEYS[1]), ttl}", List.class);
+
+    /**
+     * 放入，保留超时时间(Redis 6.0以下不支持KEEPTTL时使用)<br>
+     * KEYS[1] 键<br>
+     * ARGV[1] 值<br>
+     * 返回 是否成功(1成功 0不存在)
+     */
+    public static final RedisScript<Long> SET_KEEP_TTL = new DefaultRedisScript<>(
+            "local ttl = redis.call('PTTL', KEYS[1])\n" +
+                    "if ttl == -2 then\n" +
+                    "  return 0\n" +
+                    "end\n" +
+                    "if ttl == -1 then\n" +
+                    "  redis.call('SET', KEYS[1], ARGV[1])\n" +
+                    "else\n" +
+                    "  redis.call('SET', KEYS[1], ARGV[1], 'PX', ttl)\n" +
+                    "end\n" +
+                    "return 1", Long.class);
+
+}
@@ -0,0 +1,97 @@
+package cn.z.tinytoken;
+
+import java.security.SecureRandom;
+
+/**
+ * <h1>安全token生成器</h1>
+ *
+ * <p>
+ * 使用SecureRandom，密码学安全<br>
+ * 分为多个分段(数量为CPU核数的2倍)，线程按id选择分段，分段之间没有竞争<br>
+ * 每个分段有独立的SecureRandom和缓冲区，缓冲区用完时一次性批量填充
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 17:25:36
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public final class SecureTokenGenerator implements TokenGenerator {
+
+    /**
+     * 拒绝采样上限(不包含 BOUND的整数倍 保证均匀分布)
+     */
+    private static final long LIMIT = Long.MAX_VALUE - Long.MAX_VALUE % BOUND;
+    /**
+     * 分段
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * 构造函数
+     *
+     * @param bufferSize 每个分段缓冲的随机数个数
+     */
+    public SecureTokenGenerator(int bufferSize) {
+        int size = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors() * 2 - 1, 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(Math.max(bufferSize, 1));
+        }
+    }
+
+    @Override
+    public long nextRandom() {
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        long number;
+        do {
+            number = stripe.nextLong() & Long.MAX_VALUE;
+        } while (number >= LIMIT);
+        return number % BOUND;
+    }
+
+    /**
+     * <h2>分段</h2>
+     */
+    private static final class Stripe {
+
+        /**
+         * 随机数实例
+         */
+        private final SecureRandom random = new SecureRandom();
+        /**
+         * 缓冲区
+         */
+        private final byte[] buffer;
+        /**
+         * 下一个读取位置
+         */
+        private int position;
+
+        private Stripe(int bufferSize) {
+            this.buffer = new byte[bufferSize * 8];
+            this.position = buffer.length;
+        }
+
+        /**
+         * 从缓冲区读取long型数字(用完时批量填充)
+         *
+         * @return long型数字
+         */
+        private synchronized long nextLong() {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            long number = 0;
+            for (int i = 0; i < 8; i++) {
+                number = (number << 8) | (buffer[position++] & 0xFF);
+            }
+            return number;
+        }
+
+    }
+
+}
@@ -0,0 +1,418 @@
+package cn.z.tinytoken;
+
+import cn.z.id.Id;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h1>签名token</h1>
+ *
+ * <p>
+ * 格式 32位随机字符串(同T4s.encode) + 11位过期时间戳(秒) + 22位签名(HmacSHA256前126位)，共65位Base62字符<br>
+ * 本地验证签名、过期时间、撤销列表，撤销列表使用本地布隆过滤器预判，只有命中时才访问Redis确认<br>
+ * 撤销列表 前缀:r 有序集合，成员为序号，分数为过期时间戳(秒 过期后清除)<br>
+ * 撤销列表布隆过滤器 前缀:rb:位数:哈希函数个数:时间桶 位图，按token过期时间划分时间桶(宽度为最大过期时间)，过期时间固定为时间桶结束(参数不同的节点互不影响)<br>
+ * 有效的token只在当前和下一个时间桶中，过期的时间桶整个清除，位图不会持续累积<br>
+ * 按id撤销 前缀:ru 有序集合，成员为id:撤销时间戳(毫秒)，分数为保留截止时间戳(秒 撤销时间加最大过期时间 之后清除)<br>
+ * 按id撤销只比较token中的生成时间，生成时间早于撤销时间减允许的时钟偏差的全部撤销(要求各节点时钟同步 偏差内签发的token不会被撤销)<br>
+ * 撤销时通过发布订阅通知所有节点(各节点增量更新本地布隆过滤器)，并定时全量同步位图
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 16:05:33
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+final class SignedTokens {
+
+    /**
+     * 签名算法
+     */
+    private static final String ALGORITHM = "HmacSHA256";
+    /**
+     * 签名token长度
+     */
+    static final int LENGTH = 65;
+    /**
+     * 签名内容长度
+     */
+    private static final int PAYLOAD_LENGTH = 43;
+    /**
+     * Redis模板
+     */
+    private final Rt rt;
+    /**
+     * token生成器
+     */
+    private final TokenGenerator tokenGenerator;
+    /**
+     * Redis键(判断绝对过期时间)
+     */
+    private final RedisKeys redisKeys;
+    /**
+     * 签名实例(线程不安全 每个线程一个)
+     */
+    private final ThreadLocal<Mac> mac;
+    /**
+     * 撤销列表键
+     */
+    private final String revokeKey;
+    /**
+     * 撤销列表布隆过滤器位图键前缀(后接时间桶)
+     */
+    private final String bloomKey;
+    /**
+     * 按id撤销键
+     */
+    private final String revokeIdKey;
+    /**
+     * 撤销频道
+     */
+    private final String revokeChannel;
+    /**
+     * 已撤销的token(时间桶 布隆过滤器 元素为序号)
+     */
+    private final Map<Long, BloomFilter> revokedTokens = new ConcurrentHashMap<>();
+    /**
+     * 撤销列表布隆过滤器容量
+     */
+    private final long revokeCapacity;
+    /**
+     * 撤销列表布隆过滤器误判率
+     */
+    private final double revokeFalsePositiveRate;
+    /**
+     * 全量同步期间收到的撤销([序号, 过期时间戳(秒)] 同步时为非null)
+     */
+    private List<long[]> pending;
+    /**
+     * 已撤销的id(id [撤销时间戳(毫秒), 保留截止时间戳(秒)])
+     */
+    private final Map<Long, long[]> revokedIds = new ConcurrentHashMap<>();
+    /**
+     * 允许的时钟偏差(毫秒 按id撤销时使用)
+     */
+    private final long clockSkew;
+    /**
+     * 最大过期时间(秒)
+     */
+    private final long maxTimeout;
+
+    /**
+     * 构造函数(订阅撤销频道 加载撤销列表)
+     *
+     * @param tinyTokenProperties TinyTokenProperties
+     * @param rt                  Rt
+     * @param tokenGenerator      token生成器
+     * @throws TinyTokenException 签名密钥为空、最大过期时间不大于0、布隆过滤器参数错误或不支持签名算法
+     */
+    SignedTokens(TinyTokenProperties tinyTokenProperties, Rt rt, TokenGenerator tokenGenerator) {
+        this.rt = rt;
+        this.tokenGenerator = tokenGenerator;
+        this.redisKeys = new RedisKeys(tinyTokenProperties);
+        TinyTokenProperties.Signed signed = tinyTokenProperties.getSigned();
+        byte[] secret = signed.getSecret().getBytes(StandardCharsets.UTF_8);
+        if (secret.length == 0) {
+            throw new TinyTokenException("签名密钥不能为空");
+        }
+        this.clockSkew = tinyTokenProperties.getValidation().getClockSkew();
+        this.maxTimeout = signed.getMaxTimeout() > 0 ? signed.getMaxTimeout() : tinyTokenProperties.getTimeout();
+        if (maxTimeout <= 0) {
+            throw new TinyTokenException("签名token最大过期时间必须大于0");
+        }
+        if (signed.getRevokeCapacity() <= 0) {
+            throw new TinyTokenException("撤销列表布隆过滤器容量必须大于0");
+        }
+        if (!(signed.getRevokeFalsePositiveRate() > 0 && signed.getRevokeFalsePositiveRate() < 1)) {
+            throw new TinyTokenException("撤销列表布隆过滤器误判率必须在0和1之间");
+        }
+        this.revokeCapacity = signed.getRevokeCapacity();
+        this.revokeFalsePositiveRate = signed.getRevokeFalsePositiveRate();
+        BloomFilter template = new BloomFilter(revokeCapacity, revokeFalsePositiveRate);
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new TinyTokenException("不支持签名算法" + ALGORITHM);
+            }
+        });
+        mac.get();
+        String prefix = tinyTokenProperties.getPrefix();
+        this.revokeKey = prefix + ":r";
+        this.bloomKey = prefix + ":rb:" + template.size() + ":" + template.hashes() + ":";
+        this.revokeIdKey = prefix + ":ru";
+        this.revokeChannel = prefix + ":revoke";
+        // 先订阅再加载 防止遗漏
+        rt.subscribe(revokeChannel, this::apply);
+        sync();
+    }
+
+    /**
+     * 生成签名token
+     *
+     * @param id      id
+     * @param timeout 过期时间(秒)
+     * @return 签名token
+     * @throws TinyTokenException 过期时间超过最大过期时间
+     */
+    String sign(long id, long timeout) {
+        if (timeout > maxTimeout) {
+            throw new TinyTokenException("签名token过期时间不能超过" + maxTimeout + "秒");
+        }
+        StringBuilder sb = new StringBuilder(LENGTH);
+        sb.append(RedisKeys.encode(Id.next(), id, tokenGenerator));
+        Base62.encode(System.currentTimeMillis() / 1000 + timeout, 11, sb);
+        String payload = sb.toString();
+        return sb.append(signature(payload)).toString();
+    }
+
+    /**
+     * 验证签名token
+     *
+     * @param token token
+     * @return 声明(不是签名token或签名错误返回null)
+     */
+    Claims verify(String token) {
+        if (token.length() != LENGTH || !RedisKeys.isBase62(token)) {
+            return null;
+        }
+        String payload = token.substring(0, PAYLOAD_LENGTH);
+        byte[] expected = signature(payload).getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(expected, token.substring(PAYLOAD_LENGTH).getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        long n = RedisKeys.decodeNumber(token);
+        long id = n ^ Base62.decode(token, 21, 11);
+        long expireAt = Base62.decode(token, 32, 11);
+        long timeout = expireAt - System.currentTimeMillis() / 1000;
+        return new Claims(id, n, expireAt, timeout, timeout > 0 && !redisKeys.isAbsoluteExpired(n) && !isRevoked(id, n, expireAt));
+    }
+
+    /**
+     * 撤销签名token(所有节点)
+     *
+     * @param claims 声明
+     */
+    void revoke(Claims claims) {
+        add(claims.n, claims.expireAt);
+        long bucket = bucket(claims.expireAt);
+        int[] positions = filter(bucket).positions(claims.n);
+        String[] args = new String[positions.length + 4];
+        args[0] = String.valueOf(claims.n);
+        args[1] = String.valueOf(claims.expireAt);
+        args[2] = RedisKeys.now();
+        args[3] = String.valueOf((bucket + 1) * maxTimeout);
+        for (int i = 0; i < positions.length; i++) {
+            args[i + 4] = String.valueOf(positions[i]);
+        }
+        rt.execute(Script.REVOKE, Arrays.asList(revokeKey, bloomKey + bucket), args);
+        rt.publish(revokeChannel, "t:" + claims.n + ":" + claims.expireAt);
+    }
+
+    /**
+     * 撤销id的所有签名token(所有节点 保留到之前签发的token全部过期)
+     *
+     * @param id id
+     */
+    void revoke(long id) {
+        long revokedAt = System.currentTimeMillis();
+        long now = revokedAt / 1000;
+        long deadline = now + maxTimeout;
+        putRevokedId(id, revokedAt, deadline);
+        rt.execute(Script.REVOKE_ID, Collections.singletonList(revokeIdKey), id + ":" + revokedAt, String.valueOf(deadline), String.valueOf(now));
+        rt.publish(revokeChannel, "u:" + id + ":" + revokedAt + ":" + deadline);
+    }
+
+    /**
+     * 全量同步撤销列表(使用Redis位图替换本地布隆过滤器 清除已过期的时间桶)
+     */
+    void sync() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        long now = System.currentTimeMillis() / 1000;
+        long current = bucket(now);
+        // 当前和下一个时间桶(修改过最大过期时间时可能还有之后的)
+        Set<Long> buckets = new TreeSet<>(Arrays.asList(current, current + 1));
+        for (Long bucket : revokedTokens.keySet()) {
+            if (bucket > current) {
+                buckets.add(bucket);
+            }
+        }
+        Map<Long, byte[]> bitmaps = new HashMap<>();
+        for (Long bucket : buckets) {
+            bitmaps.put(bucket, rt.getBytes(bloomKey + bucket));
+        }
+        synchronized (this) {
+            // 加载期间收到的撤销可能不在位图中 需要重新放入
+            for (Map.Entry<Long, byte[]> entry : bitmaps.entrySet()) {
+                long bucket = entry.getKey();
+                filter(bucket).replace(entry.getValue(), pending.stream().filter(p -> bucket(p[1]) == bucket).mapToLong(p -> p[0]).toArray());
+            }
+            pending = null;
+            revokedTokens.keySet().removeIf(bucket -> bucket < current);
+        }
+        for (ZSetOperations.TypedTuple<Object> tuple : rt.rangeByScoreWithScores(revokeIdKey, now + 1, Double.POSITIVE_INFINITY)) {
+            String[] split = ((String) tuple.getValue()).split(":");
+            putRevokedId(Long.parseLong(split[0]), Long.parseLong(split[1]), tuple.getScore().longValue());
+        }
+        // 之前签发的token已全部过期
+        revokedIds.values().removeIf(revoked -> revoked[1] <= now);
+    }
+
+    /**
+     * 记录已撤销的id(保留撤销时间较晚的)
+     *
+     * @param id        id
+     * @param revokedAt 撤销时间戳(毫秒)
+     * @param deadline  保留截止时间戳(秒)
+     */
+    private void putRevokedId(long id, long revokedAt, long deadline) {
+        revokedIds.merge(id, new long[]{revokedAt, deadline}, (a, b) -> a[0] >= b[0] ? a : b);
+    }
+
+    /**
+     * 是否已撤销
+     *
+     * @param id       id
+     * @param n        序号
+     * @param expireAt 过期时间戳(秒)
+     * @return 是否已撤销
+     */
+    private boolean isRevoked(long id, long n, long expireAt) {
+        long[] revoked = revokedIds.get(id);
+        // 只比较生成时间(序号按节点时钟、机器码排序 不同节点之间不可比较)
+        if (revoked != null && Id.parse(n)[0] < revoked[0] - clockSkew) {
+            return true;
+        }
+        BloomFilter filter = revokedTokens.get(bucket(expireAt));
+        if (filter == null || !filter.mightContain(n)) {
+            return false;
+        }
+        // 只在token未过期时判断 撤销列表中存在即为已撤销
+        return rt.score(revokeKey, String.valueOf(n)) != null;
+    }
+
+    /**
+     * 时间桶
+     *
+     * @param expireAt 过期时间戳(秒)
+     * @return 时间桶
+     */
+    private long bucket(long expireAt) {
+        return expireAt / maxTimeout;
+    }
+
+    /**
+     * 获取时间桶的本地布隆过滤器(不存在时创建)
+     *
+     * @param bucket 时间桶
+     * @return 布隆过滤器
+     */
+    private BloomFilter filter(long bucket) {
+        return revokedTokens.computeIfAbsent(bucket, b -> new BloomFilter(revokeCapacity, revokeFalsePositiveRate));
+    }
+
+    /**
+     * 放入本地布隆过滤器
+     *
+     * @param n        序号
+     * @param expireAt 过期时间戳(秒)
+     */
+    private synchronized void add(long n, long expireAt) {
+        filter(bucket(expireAt)).put(n);
+        if (pending != null) {
+            pending.add(new long[]{n, expireAt});
+        }
+    }
+
+    /**
+     * 处理撤销消息
+     *
+     * @param message t:序号:过期时间戳 或 u:id:撤销时间戳(毫秒):保留截止时间戳
+     */
+    private void apply(String message) {
+        String[] split = message.split(":");
+        if ("t".equals(split[0])) {
+            add(Long.parseLong(split[1]), Long.parseLong(split[2]));
+        } else {
+            putRevokedId(Long.parseLong(split[1]), Long.parseLong(split[2]), Long.parseLong(split[3]));
+        }
+    }
+
+    /**
+     * 签名(HmacSHA256前126位 2个11位Base62)
+     *
+     * @param payload 签名内容
+     * @return 22位签名
+     */
+    private String signature(String payload) {
+        byte[] hash = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(22);
+        for (int i = 0; i < 2; i++) {
+            long number = 0;
+            for (int j = 0; j < 8; j++) {
+                number = (number << 8) | (hash[i * 8 + j] & 0xFF);
+            }
+            Base62.encode(number & Long.MAX_VALUE, 11, sb);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * <h2>声明</h2>
+     */
+    static final class Claims {
+
+        /**
+         * id
+         */
+        final long id;
+        /**
+         * 序号
+         */
+        final long n;
+        /**
+         * 过期时间戳(秒)
+         */
+        final long expireAt;
+        /**
+         * 剩余过期时间(秒)
+         */
+        final long timeout;
+        /**
+         * 是否有效(未过期 未超过绝对过期时间 未撤销)
+         */
+        final boolean valid;
+
+        private Claims(long id, long n, long expireAt, long timeout, boolean valid) {
+            this.id = id;
+            this.n = n;
+            this.expireAt = expireAt;
+            this.timeout = timeout;
+            this.valid = valid;
+        }
+
+    }
+
+}
@@ -2,16 +2,42 @@ package cn.z.tinytoken;
 
 import cn.z.id.Id;
 import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties.RenewMode;
 import cn.z.tinytoken.entity.TokenInfo;
 import cn.z.tinytoken.entity.TokenInfoExtra;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <h1>轻量级权限认证Spring实现</h1>
@@ -27,12 +53,19 @@ import java.util.Random;
  * @author ALI[ali-k@foxmail.com]
  * @since 1.0.0
  **/
-public class T4s {
+@ConditionalOnClass(name = "javax.servlet.http.HttpServletRequest")
+public class T4s implements DisposableBean {
 
     /**
-     * 随机数实例
+     * 日志实例
      */
-    private static final Random RANDOM = new Random();
+    private static final Logger log = LoggerFactory.getLogger(T4s.class);
+    /**
+     * 请求内缓存的请求属性名
+     *
+     * @since 1.8.0
+     */
+    public static final String MEMO_ATTRIBUTE = T4s.class.getName() + ".MEMO";
     /**
      * 轻量级权限认证配置属性
      */
@@ -41,6 +74,50 @@ public class T4s {
      * Redis模板
      */
     private final Rt rt;
+    /**
+     * Redis键
+     */
+    private final RedisKeys redisKeys;
+    /**
+     * token生成器
+     */
+    private final TokenGenerator tokenGenerator;
+    /**
+     * 本地缓存(未启用为null)
+     */
+    private final LocalCache<TokenInfoExtra> nearCache;
+    /**
+     * 无效token缓存(未启用为null)
+     */
+    private final LocalCache<Boolean> negativeCache;
+    /**
+     * 本地缓存失效频道(本地缓存、无效token缓存、续期本地记录共用)
+     */
+    private final String nearCacheChannel;
+    /**
+     * 续期本地记录(记录到下次需要检查的时间 未启用为null)
+     */
+    private final LocalCache<Boolean> renewCache;
+    /**
+     * 异步续期队列(去重)
+     */
+    private final Set<String> renewQueue = ConcurrentHashMap.newKeySet();
+    /**
+     * 是否异步续期
+     */
+    private final boolean renewAsync;
+    /**
+     * 签名token(未启用为null)
+     */
+    private final SignedTokens signedTokens;
+    /**
+     * 调度器(异步续期、同步撤销列表 都未启用为null)
+     */
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 是否启用请求内缓存
+     */
+    private final boolean memo;
 
     /**
      * 构造函数(自动注入)
@@ -51,6 +128,60 @@ public class T4s {
     public T4s(TinyTokenProperties tinyTokenProperties, Rt rt) {
         this.tinyTokenProperties = tinyTokenProperties;
         this.rt = rt;
+        this.redisKeys = new RedisKeys(tinyTokenProperties);
+        this.tokenGenerator = TokenGenerator.of(tinyTokenProperties.getGenerator());
+        this.memo = tinyTokenProperties.getMemo().isEnabled();
+        this.nearCacheChannel = tinyTokenProperties.getPrefix() + ":near-cache";
+        TinyTokenProperties.NearCache nearCacheProperties = tinyTokenProperties.getNearCache();
+        if (nearCacheProperties.isEnabled()) {
+            this.nearCache = new LocalCache<>(nearCacheProperties.getMaximumSize(), nearCacheProperties.getTimeout());
+        } else {
+            this.nearCache = null;
+        }
+        TinyTokenProperties.NegativeCache negativeCacheProperties = tinyTokenProperties.getNegativeCache();
+        if (negativeCacheProperties.isEnabled()) {
+            this.negativeCache = new LocalCache<>(negativeCacheProperties.getMaximumSize(), negativeCacheProperties.getTimeout());
+        } else {
+            this.negativeCache = null;
+        }
+        TinyTokenProperties.Renew renewProperties = tinyTokenProperties.getRenew();
+        if (renewProperties.isEnabled()) {
+            this.renewCache = new LocalCache<>(renewProperties.getMaximumSize(), tinyTokenProperties.getTimeout() * 1000);
+        } else {
+            this.renewCache = null;
+        }
+        if (nearCache != null || negativeCache != null || renewCache != null) {
+            // 其他节点修改后通知失效
+            rt.subscribe(nearCacheChannel, message -> {
+                for (String token : message.split("\n")) {
+                    remove(token);
+                }
+            });
+        }
+        this.renewAsync = renewCache != null && renewProperties.getMode() == RenewMode.ASYNC;
+        TinyTokenProperties.Signed signedProperties = tinyTokenProperties.getSigned();
+        if (signedProperties.isEnabled()) {
+            this.signedTokens = new SignedTokens(tinyTokenProperties, rt, tokenGenerator);
+        } else {
+            this.signedTokens = null;
+        }
+        if (renewAsync || signedTokens != null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tiny-token-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (renewAsync) {
+                long flushInterval = renewProperties.getFlushInterval();
+                scheduler.scheduleWithFixedDelay(this::flushRenew, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+            }
+            if (signedTokens != null) {
+                long syncInterval = signedProperties.getSyncInterval();
+                scheduler.scheduleWithFixedDelay(this::syncRevoked, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.scheduler = null;
+        }
     }
 
     /**
@@ -60,9 +191,7 @@ public class T4s {
      * @return token
      */
     public String setToken(long id) {
-        String token = encode(Id.next(), id);
-        setToken(id, token, tinyTokenProperties.getTimeout());
-        return token;
+        return setToken(id, tinyTokenProperties.getTimeout());
     }
 
     /**
@@ -73,8 +202,11 @@ public class T4s {
      * @return token
      */
     public String setToken(long id, long timeout) {
-        String token = encode(Id.next(), id);
-        setToken(id, token, timeout);
+        if (signedTokens != null) {
+            return signedTokens.sign(id, timeout);
+        }
+        String token = RedisKeys.encode(Id.next(), id, tokenGenerator);
+        set(id, token, "", timeout);
         return token;
     }
 
@@ -96,7 +228,7 @@ public class T4s {
      * @param timeout 过期时间(秒)
      */
     public void setToken(long id, String token, long timeout) {
-        rt.set(tinyTokenProperties.getPrefix() + ":" + id + ":" + token, "", timeout);
+        setToken(id, token, "", timeout);
     }
 
     /**
@@ -108,7 +240,99 @@ public class T4s {
      * @param timeout 过期时间(秒)
      */
     public void setToken(long id, String token, String extra, long timeout) {
-        rt.set(tinyTokenProperties.getPrefix() + ":" + id + ":" + token, extra, timeout);
+        set(id, token, extra, timeout);
+        invalidate(token);
+    }
+
+    /**
+     * 设置多个token(token使用32位随机字符串 按批使用管道)
+     *
+     * @param ids     id列表
+     * @param timeout 过期时间(秒)
+     * @return token列表(与id列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<String> setTokens(Collection<Long> ids, long timeout) {
+        List<String> tokens = new ArrayList<>(ids.size());
+        if (signedTokens != null) {
+            for (long id : ids) {
+                tokens.add(signedTokens.sign(id, timeout));
+            }
+            return tokens;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        for (long id : idList) {
+            tokens.add(RedisKeys.encode(Id.next(), id, tokenGenerator));
+        }
+        set(idList, tokens, timeout);
+        return tokens;
+    }
+
+    /**
+     * 设置多个token(按批使用管道)
+     *
+     * @param tokens  id和token
+     * @param timeout 过期时间(秒)
+     * @since 1.8.0
+     */
+    public void setTokens(Map<Long, String> tokens, long timeout) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(tokens.size());
+        List<String> list = new ArrayList<>(tokens.size());
+        for (Map.Entry<Long, String> entry : tokens.entrySet()) {
+            ids.add(entry.getKey());
+            list.add(entry.getValue());
+        }
+        set(ids, list, timeout);
+        invalidate(list);
+    }
+
+    /**
+     * 设置多个token(按批使用管道 不通知本地缓存失效)
+     *
+     * @param ids     id列表
+     * @param tokens  token列表
+     * @param timeout 过期时间(秒)
+     * @since 1.8.0
+     */
+    private void set(List<Long> ids, List<String> tokens, long timeout) {
+        if (redisKeys.isIndexMode()) {
+            String now = RedisKeys.now();
+            List<List<String>> keys = new ArrayList<>(tokens.size());
+            List<String[]> args = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                long id = ids.get(i);
+                String token = tokens.get(i);
+                keys.add(redisKeys.getKeys(id, token));
+                args.add(new String[]{"", String.valueOf(timeout), String.valueOf(id), token, now});
+            }
+            rt.executeMulti(Script.SET, keys, args);
+        } else {
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                map.put(redisKeys.getKey(ids.get(i), tokens.get(i)), "");
+            }
+            rt.setMulti(map, timeout);
+        }
+    }
+
+    /**
+     * 设置token(不通知本地缓存失效)
+     *
+     * @param id      id
+     * @param token   token
+     * @param extra   拓展内容
+     * @param timeout 过期时间(秒)
+     * @since 1.8.0
+     */
+    private void set(long id, String token, String extra, long timeout) {
+        if (redisKeys.isIndexMode()) {
+            rt.execute(Script.SET, redisKeys.getKeys(id, token), extra, String.valueOf(timeout), String.valueOf(id), token, RedisKeys.now());
+        } else {
+            rt.set(redisKeys.getKey(id, token), extra, timeout);
+        }
     }
 
     /**
@@ -151,14 +375,13 @@ public class T4s {
      * @since 1.2.0
      */
     public boolean setExtra(String token, String extra) {
+        if (verify(token) != null) {
+            // 签名token不保存在Redis 不能修改
+            return false;
+        }
         String key = getKey(token);
-        if (key != null) {
-            long expire = rt.getExpire(key);
-            if (expire == -1) {
-                rt.set(key, extra);
-            } else {
-                rt.set(key, extra, expire);
-            }
+        if (key != null && rt.setKeepTtl(key, extra)) {
+            invalidate(token);
             return true;
         }
         return false;
@@ -201,17 +424,7 @@ public class T4s {
      * @since 1.2.0
      */
     public boolean clearExtra(String token) {
-        String key = getKey(token);
-        if (key != null) {
-            long expire = rt.getExpire(key);
-            if (expire == -1) {
-                rt.set(key, "");
-            } else {
-                rt.set(key, "", expire);
-            }
-            return true;
-        }
-        return false;
+        return setExtra(token, "");
     }
 
     /**
@@ -221,11 +434,7 @@ public class T4s {
      * @throws TinyTokenException 不存在Context
      */
     public String getToken() {
-        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
-        if (requestAttributes == null) {
-            throw new TinyTokenException("不存在Context");
-        }
-        return getToken(((ServletRequestAttributes) requestAttributes).getRequest());
+        return getToken(getRequest());
     }
 
     /**
@@ -245,11 +454,7 @@ public class T4s {
      * @return token(不存在或无效返回null)
      */
     public String getTokenValid() {
-        String token = getToken();
-        if (token != null && existByToken(token)) {
-            return token;
-        }
-        return null;
+        return getTokenValid(getRequest());
     }
 
     /**
@@ -261,12 +466,64 @@ public class T4s {
      */
     public String getTokenValid(HttpServletRequest request) {
         String token = getToken(request);
-        if (token != null && existByToken(token)) {
+        if (token != null && (memo ? getMemo(request, token) != null : existByToken(token))) {
             return token;
         }
         return null;
     }
 
+    /**
+     * 获取当前Context的HttpServletRequest
+     *
+     * @return HttpServletRequest
+     * @throws TinyTokenException 不存在Context
+     * @since 1.8.0
+     */
+    private static HttpServletRequest getRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            throw new TinyTokenException("不存在Context");
+        }
+        return ((ServletRequestAttributes) requestAttributes).getRequest();
+    }
+
+    /**
+     * 获取请求内缓存(不存在时通过Redis解析并保存到请求属性)
+     *
+     * @param request HttpServletRequest
+     * @param token   token
+     * @return 信息拓展(不存在返回null)
+     * @since 1.8.0
+     */
+    private TokenInfoExtra getMemo(HttpServletRequest request, String token) {
+        Object attribute = request.getAttribute(MEMO_ATTRIBUTE);
+        if (attribute instanceof Memo && ((Memo) attribute).token.equals(token)) {
+            return ((Memo) attribute).info;
+        }
+        TokenInfoExtra info = getInfoExtraByToken(token);
+        request.setAttribute(MEMO_ATTRIBUTE, new Memo(token, info));
+        return info;
+    }
+
+    /**
+     * 请求内缓存失效(当前Context的token被修改时)
+     *
+     * @param tokens token列表
+     * @since 1.8.0
+     */
+    private void forget(List<String> tokens) {
+        if (!memo) {
+            return;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Object attribute = requestAttributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (attribute instanceof Memo && tokens.contains(((Memo) attribute).token)) {
+                requestAttributes.removeAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+    }
+
     /**
      * 获取键
      *
@@ -274,13 +531,250 @@ public class T4s {
      * @return 键(不存在返回null)
      */
     private String getKey(String token) {
-        List<String> scan = rt.scan(tinyTokenProperties.getPrefix() + ":*:" + token);
-        if (!scan.isEmpty()) {
-            return scan.get(0);
+        if (isRejected(token)) {
+            return null;
+        }
+        long stamp = negativeCache != null ? negativeCache.stamp() : 0;
+        String key = loadKey(token);
+        if (key == null) {
+            putInvalid(token, stamp);
+            return null;
+        }
+        if (deleteIfAbsoluteExpired(token, key)) {
+            return null;
+        }
+        return key;
+    }
+
+    /**
+     * 从Redis获取键
+     *
+     * @param token token
+     * @return 键(不存在返回null)
+     * @since 1.8.0
+     */
+    private String loadKey(String token) {
+        if (redisKeys.isIndexMode()) {
+            if (RedisKeys.isEncoded(token)) {
+                String key = redisKeys.getKey(RedisKeys.decodeId(token), token);
+                if (Boolean.TRUE.equals(rt.exists(key))) {
+                    return key;
+                }
+            }
+            Object id = rt.get(redisKeys.getIndexKey(token));
+            if (id != null) {
+                return redisKeys.getKey(id, token);
+            }
+            return null;
+        }
+        return rt.scanFirst(redisKeys.getMatch(token), tinyTokenProperties.getScanTimeout());
+    }
+
+    /**
+     * 获取多个键(32位随机字符串直接解析出键后按批检查是否存在，其余索引模式下使用索引键，扫描模式下只扫描一次)<br>
+     * 32位随机字符串解析出的键不存在时可能是同样格式的自定义token，与其余token一起查找(扫描模式下共用一次扫描)
+     *
+     * @param tokens  token列表
+     * @param expires 超时时间(秒，-1不过期 与token列表顺序一致 null不获取 检查是否存在时同时获取)
+     * @param claims  签名token的声明(与token列表顺序一致 null不获取 不是签名token为null)
+     * @return 键列表(与token列表顺序一致 签名token、不存在为null)
+     * @since 1.8.0
+     */
+    private List<String> getKeys(List<String> tokens, long[] expires, SignedTokens.Claims[] claims) {
+        List<String> keys = new ArrayList<>(Collections.nCopies(tokens.size(), null));
+        long stamp = negativeCache != null ? negativeCache.stamp() : 0;
+        List<Integer> index = new ArrayList<>();
+        List<String> candidates = new ArrayList<>();
+        Set<String> remaining = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            SignedTokens.Claims claim = verify(token);
+            if (claims != null) {
+                claims[i] = claim;
+            }
+            if (claim != null || isRejected(token)) {
+                continue;
+            }
+            if (RedisKeys.isEncoded(token)) {
+                index.add(i);
+                candidates.add(redisKeys.getKey(RedisKeys.decodeId(token), token));
+            } else {
+                remaining.add(token);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            List<Long> ttl = expires != null ? rt.getExpireMulti(candidates) : null;
+            List<Boolean> exists = ttl == null ? rt.existsMulti(candidates) : null;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (ttl != null ? ttl.get(i) > -2 : exists.get(i)) {
+                    if (deleteIfAbsoluteExpired(tokens.get(index.get(i)), candidates.get(i))) {
+                        continue;
+                    }
+                    keys.set(index.get(i), candidates.get(i));
+                    if (ttl != null) {
+                        expires[index.get(i)] = ttl.get(i);
+                    }
+                } else {
+                    // 可能是自定义token
+                    remaining.add(tokens.get(index.get(i)));
+                }
+            }
+        }
+        if (!remaining.isEmpty()) {
+            Map<String, String> found = redisKeys.isIndexMode() ? getIndexedKeys(remaining) : scanKeys(remaining);
+            Map<String, Long> ttlByToken = expires != null ? getExpires(found) : null;
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                if (remaining.contains(token)) {
+                    String key = found.get(token);
+                    if (key != null) {
+                        if (deleteIfAbsoluteExpired(token, key)) {
+                            continue;
+                        }
+                        keys.set(i, key);
+                        if (expires != null) {
+                            expires[i] = ttlByToken.get(token);
+                        }
+                    } else {
+                        putInvalid(token, stamp);
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 获取多个超时时间(获取期间过期的从键中移除)
+     *
+     * @param keys token 键
+     * @return token 超时时间(秒，-1不过期)
+     * @since 1.8.0
+     */
+    private Map<String, Long> getExpires(Map<String, String> keys) {
+        List<String> tokens = new ArrayList<>(keys.keySet());
+        List<String> list = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            list.add(keys.get(token));
+        }
+        List<Long> ttl = rt.getExpireMulti(list);
+        Map<String, Long> expires = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (ttl.get(i) == -2) {
+                keys.remove(tokens.get(i));
+            } else {
+                expires.put(tokens.get(i), ttl.get(i));
+            }
+        }
+        return expires;
+    }
+
+    /**
+     * 通过索引键获取多个键(mGet)
+     *
+     * @param tokens token列表
+     * @return token 键(不存在的不包含)
+     * @since 1.8.0
+     */
+    private Map<String, String> getIndexedKeys(Collection<String> tokens) {
+        List<String> list = new ArrayList<>(tokens);
+        List<String> indexKeys = new ArrayList<>(list.size());
+        for (String token : list) {
+            indexKeys.add(redisKeys.getIndexKey(token));
+        }
+        List<Object> ids = rt.getMulti(indexKeys);
+        Map<String, String> keys = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            if (ids.get(i) != null) {
+                keys.put(list.get(i), redisKeys.getKey(ids.get(i), list.get(i)));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 扫描一次获取多个键(全部找到后停止扫描)
+     *
+     * @param tokens token列表
+     * @return token 键(不存在的不包含)
+     * @throws ScanTimeoutException 超时(不能确定未找到的是否存在)
+     * @since 1.8.0
+     */
+    private Map<String, String> scanKeys(Set<String> tokens) {
+        Map<String, String> keys = new HashMap<>();
+        long scanTimeout = tinyTokenProperties.getScanTimeout();
+        long deadline = scanTimeout > 0 ? System.currentTimeMillis() + scanTimeout : Long.MAX_VALUE;
+        String match = redisKeys.getMatch();
+        try (Cursor<String> cursor = rt.scanCursor(match)) {
+            while (keys.size() < tokens.size() && cursor.hasNext()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new ScanTimeoutException(match, scanTimeout);
+                }
+                String key = cursor.next();
+                String[] split = key.split(":", -1);
+                if (split.length == 3 && tokens.contains(split[2])) {
+                    keys.put(split[2], key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 获取键、拓展内容、超时时间(索引模式下32位随机字符串一次往返)
+     *
+     * @param token token
+     * @return [键, 拓展内容, 超时时间(毫秒，-1不过期)](不存在返回null)
+     * @since 1.8.0
+     */
+    private List<?> getValue(String token) {
+        if (redisKeys.isIndexMode()) {
+            if (isRejected(token)) {
+                return null;
+            }
+            long stamp = negativeCache != null ? negativeCache.stamp() : 0;
+            List<?> value = null;
+            if (RedisKeys.isEncoded(token)) {
+                value = loadValue(redisKeys.getKey(RedisKeys.decodeId(token), token));
+            }
+            if (value == null) {
+                // 自定义token使用索引键
+                Object id = rt.get(redisKeys.getIndexKey(token));
+                if (id != null) {
+                    value = loadValue(redisKeys.getKey(id, token));
+                }
+            }
+            if (value == null) {
+                putInvalid(token, stamp);
+                return null;
+            }
+            if (deleteIfAbsoluteExpired(token, (String) value.get(0))) {
+                return null;
+            }
+            return value;
+        }
+        String key = getKey(token);
+        if (key != null) {
+            return loadValue(key);
         }
         return null;
     }
 
+    /**
+     * 从Redis获取拓展内容、超时时间
+     *
+     * @param key 键
+     * @return [键, 拓展内容, 超时时间(毫秒，-1不过期)](不存在返回null)
+     * @since 1.8.0
+     */
+    private List<?> loadValue(String key) {
+        List<?> value = rt.execute(Script.GET, Collections.singletonList(key));
+        if (value.isEmpty()) {
+            return null;
+        }
+        return Arrays.asList(key, value.get(0), value.get(1));
+    }
+
     /**
      * 获取键列表
      *
@@ -288,7 +782,14 @@ public class T4s {
      * @return 键列表(不存在返回[])
      */
     private List<String> getKey(long id) {
-        return rt.scan(tinyTokenProperties.getPrefix() + ":" + id + ":*");
+        if (redisKeys.isIndexMode()) {
+            List<String> keys = new ArrayList<>();
+            for (String token : getToken(id)) {
+                keys.add(redisKeys.getKey(id, token));
+            }
+            return keys;
+        }
+        return rt.scan(redisKeys.getMatch(id));
     }
 
     /**
@@ -298,7 +799,7 @@ public class T4s {
      * @since 1.2.0
      */
     private List<String> getKey() {
-        return rt.scan(tinyTokenProperties.getPrefix() + ":*:*");
+        return rt.scan(redisKeys.getMatch());
     }
 
     /**
@@ -309,6 +810,13 @@ public class T4s {
      */
     public List<String> getToken(long id) {
         List<String> tokens = new ArrayList<>();
+        if (redisKeys.isIndexMode()) {
+            // 已过期的成员由修改操作清除
+            for (Object token : rt.rangeByScore(redisKeys.getUserKey(id), System.currentTimeMillis() / 1000D, Double.POSITIVE_INFINITY)) {
+                tokens.add((String) token);
+            }
+            return tokens;
+        }
         List<String> keys = getKey(id);
         for (String key : keys) {
             String[] split = key.split(":", -1);
@@ -325,11 +833,7 @@ public class T4s {
      * @return id(不存在返回null)
      */
     public Long getId() {
-        String token = getToken();
-        if (token != null) {
-            return getId(token);
-        }
-        return null;
+        return getId(getRequest());
     }
 
     /**
@@ -342,6 +846,10 @@ public class T4s {
     public Long getId(HttpServletRequest request) {
         String token = getToken(request);
         if (token != null) {
+            if (memo) {
+                TokenInfoExtra info = getMemo(request, token);
+                return info != null ? info.getId() : null;
+            }
             return getId(token);
         }
         return null;
@@ -354,6 +862,14 @@ public class T4s {
      * @return id(不存在返回null)
      */
     public Long getId(String token) {
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            return claims.valid ? claims.id : null;
+        }
+        if (nearCache != null) {
+            TokenInfoExtra info = getNearCache(token);
+            return info != null ? info.getId() : null;
+        }
         String key = getKey(token);
         if (key != null) {
             String[] split = key.split(":", -1);
@@ -371,11 +887,7 @@ public class T4s {
      * @since 1.4.1
      */
     public String getExtra() {
-        String token = getToken();
-        if (token != null) {
-            return getExtra(token);
-        }
-        return null;
+        return getExtra(getRequest());
     }
 
     /**
@@ -388,6 +900,10 @@ public class T4s {
     public String getExtra(HttpServletRequest request) {
         String token = getToken(request);
         if (token != null) {
+            if (memo) {
+                TokenInfoExtra info = getMemo(request, token);
+                return info != null ? info.getExtra() : null;
+            }
             return getExtra(token);
         }
         return null;
@@ -401,9 +917,17 @@ public class T4s {
      * @since 1.4.1
      */
     public String getExtra(String token) {
-        String key = getKey(token);
-        if (key != null) {
-            return (String) rt.get(key);
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            return claims.valid ? "" : null;
+        }
+        if (nearCache != null) {
+            TokenInfoExtra info = getNearCache(token);
+            return info != null ? info.getExtra() : null;
+        }
+        List<?> value = getValue(token);
+        if (value != null) {
+            return (String) value.get(1);
         }
         return null;
     }
@@ -435,7 +959,14 @@ public class T4s {
      * @return 是否存在
      */
     public boolean existByToken(String token) {
-        return !rt.scan(tinyTokenProperties.getPrefix() + ":*:" + token).isEmpty();
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            return claims.valid;
+        }
+        if (nearCache != null) {
+            return getNearCache(token) != null;
+        }
+        return getKey(token) != null;
     }
 
     /**
@@ -483,9 +1014,24 @@ public class T4s {
      * @return 是否成功
      */
     public Boolean deleteByToken(String token) {
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            if (claims.valid) {
+                signedTokens.revoke(claims);
+                forget(Collections.singletonList(token));
+            }
+            return claims.valid;
+        }
         String key = getKey(token);
         if (key != null) {
-            return rt.delete(key);
+            Boolean result;
+            if (redisKeys.isIndexMode()) {
+                result = delete(RedisKeys.parseId(key), Collections.singletonList(token)) > 0;
+            } else {
+                result = rt.delete(key);
+            }
+            invalidate(token);
+            return result;
         }
         return false;
     }
@@ -497,11 +1043,53 @@ public class T4s {
      * @return 成功个数
      */
     public Long deleteById(long id) {
-        List<String> keys = getKey(id);
-        if (!keys.isEmpty()) {
-            return rt.deleteMulti(keys);
+        if (signedTokens != null) {
+            signedTokens.revoke(id);
+        }
+        List<String> tokens = getToken(id);
+        if (tokens.isEmpty()) {
+            return 0L;
+        }
+        Long count;
+        if (redisKeys.isIndexMode()) {
+            count = delete(id, tokens);
+        } else {
+            List<String> keys = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                keys.add(redisKeys.getKey(id, token));
+            }
+            count = rt.deleteMulti(keys);
+        }
+        invalidate(tokens);
+        return count;
+    }
+
+    /**
+     * 删除(索引模式)
+     *
+     * @param id     id
+     * @param tokens token列表
+     * @return 成功个数
+     * @since 1.8.0
+     */
+    private Long delete(long id, List<String> tokens) {
+        // 用户键 键 索引键
+        List<String> keys = new ArrayList<>(tokens.size() * 2 + 1);
+        // 键个数 token 当前时间戳
+        List<String> args = new ArrayList<>(tokens.size() + 2);
+        keys.add(redisKeys.getUserKey(id));
+        args.add(String.valueOf(tokens.size()));
+        for (String token : tokens) {
+            keys.add(redisKeys.getKey(id, token));
+            args.add(token);
+        }
+        for (String token : tokens) {
+            if (redisKeys.isIndexed(id, token)) {
+                keys.add(redisKeys.getIndexKey(token));
+            }
         }
-        return 0L;
+        args.add(RedisKeys.now());
+        return rt.execute(Script.DELETE, keys, args.toArray(new String[0]));
     }
 
     /**
@@ -571,11 +1159,7 @@ public class T4s {
      * @since 1.2.3
      */
     public Boolean expire(String token) {
-        String key = getKey(token);
-        if (key != null) {
-            return rt.expire(key, tinyTokenProperties.getTimeout());
-        }
-        return false;
+        return expire(token, tinyTokenProperties.getTimeout());
     }
 
     /**
@@ -586,9 +1170,20 @@ public class T4s {
      * @return 是否成功
      */
     public Boolean expire(String token, long timeout) {
+        if (verify(token) != null) {
+            // 签名token不保存在Redis 不能修改
+            return false;
+        }
         String key = getKey(token);
         if (key != null) {
-            return rt.expire(key, timeout);
+            Boolean result;
+            if (redisKeys.isIndexMode()) {
+                result = rt.execute(Script.EXPIRE, redisKeys.getKeys(RedisKeys.parseId(key), token), String.valueOf(timeout), token, RedisKeys.now()) == 1;
+            } else {
+                result = rt.expire(key, timeout);
+            }
+            invalidate(token);
+            return result;
         }
         return false;
     }
@@ -628,24 +1223,320 @@ public class T4s {
      * @return 是否成功
      */
     public Boolean persist(String token) {
+        if (verify(token) != null) {
+            // 签名token不保存在Redis 不能修改
+            return false;
+        }
         String key = getKey(token);
         if (key != null) {
-            return rt.persist(key);
+            Boolean result;
+            if (redisKeys.isIndexMode()) {
+                result = rt.execute(Script.PERSIST, redisKeys.getKeys(RedisKeys.parseId(key), token), token, RedisKeys.now()) == 1;
+            } else {
+                result = rt.persist(key);
+            }
+            invalidate(token);
+            return result;
         }
         return false;
     }
 
     /**
-     * 获取信息(当前Context)
+     * 设置多个过期时间(按批使用管道)
      *
-     * @return 信息(不存在返回null)
+     * @param tokens  token列表
+     * @param timeout 过期时间(秒)
+     * @return 是否成功列表(与token列表顺序一致)
+     * @since 1.8.0
      */
-    public TokenInfo getInfoByToken() {
+    public List<Boolean> expireTokens(Collection<String> tokens, long timeout) {
+        return update(new ArrayList<>(tokens), null, keys -> rt.expireMulti(keys, timeout), Script.EXPIRE, redisKeys::getKeys, String.valueOf(timeout), null, RedisKeys.now());
+    }
+
+    /**
+     * 设置多个永不过期(按批使用管道)
+     *
+     * @param tokens token列表
+     * @return 是否成功列表(与token列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> persistTokens(Collection<String> tokens) {
+        return update(new ArrayList<>(tokens), null, rt::persistMulti, Script.PERSIST, redisKeys::getKeys, null, RedisKeys.now());
+    }
+
+    /**
+     * 删除多个(按批使用管道 签名token逐个撤销)
+     *
+     * @param tokens token列表
+     * @return 是否成功列表(与token列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> deleteByTokens(Collection<String> tokens) {
+        List<String> list = new ArrayList<>(tokens);
+        // 查找键时验证过的签名token直接撤销 不再验证
+        SignedTokens.Claims[] claims = signedTokens != null ? new SignedTokens.Claims[list.size()] : null;
+        List<Boolean> results = update(list, claims, rt::deleteEach, Script.DELETE, (id, token) -> {
+            // 用户键 键 索引键
+            List<String> keys = new ArrayList<>(3);
+            keys.add(redisKeys.getUserKey(id));
+            keys.add(redisKeys.getKey(id, token));
+            if (redisKeys.isIndexed(id, token)) {
+                keys.add(redisKeys.getIndexKey(token));
+            }
+            return keys;
+        }, "1", null, RedisKeys.now());
+        if (claims != null) {
+            for (int i = 0; i < claims.length; i++) {
+                if (claims[i] != null && claims[i].valid) {
+                    signedTokens.revoke(claims[i]);
+                    forget(Collections.singletonList(list.get(i)));
+                    results.set(i, true);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 修改多个token(按批使用管道 签名token、不存在的返回false)
+     *
+     * @param list       token列表
+     * @param claims     签名token的声明(与token列表顺序一致 null不获取)
+     * @param command    扫描模式使用的命令(键列表 是否成功列表)
+     * @param script     索引模式使用的脚本
+     * @param scriptKeys 脚本使用的键列表(id token 键列表)
+     * @param args       脚本参数(null替换为token)
+     * @return 是否成功列表(与token列表顺序一致)
+     * @since 1.8.0
+     */
+    private List<Boolean> update(List<String> list, SignedTokens.Claims[] claims, Function<List<String>, List<Boolean>> command, RedisScript<Long> script,
+                                 BiFunction<Long, String, List<String>> scriptKeys, String... args) {
+        List<String> keys = getKeys(list, null, claims);
+        List<Boolean> results = new ArrayList<>(Collections.nCopies(list.size(), false));
+        List<Integer> index = new ArrayList<>();
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) != null) {
+                index.add(i);
+                found.add(keys.get(i));
+            }
+        }
+        if (index.isEmpty()) {
+            return results;
+        }
+        List<Boolean> updated;
+        if (redisKeys.isIndexMode()) {
+            List<List<String>> keysList = new ArrayList<>(index.size());
+            List<String[]> argsList = new ArrayList<>(index.size());
+            for (int i : index) {
+                String token = list.get(i);
+                keysList.add(scriptKeys.apply(RedisKeys.parseId(keys.get(i)), token));
+                String[] arg = args.clone();
+                for (int j = 0; j < arg.length; j++) {
+                    if (arg[j] == null) {
+                        arg[j] = token;
+                    }
+                }
+                argsList.add(arg);
+            }
+            updated = new ArrayList<>(index.size());
+            for (long result : rt.executeMulti(script, keysList, argsList)) {
+                updated.add(result > 0);
+            }
+        } else {
+            updated = command.apply(found);
+        }
+        List<String> changed = new ArrayList<>(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            results.set(index.get(i), updated.get(i));
+            changed.add(list.get(index.get(i)));
+        }
+        invalidate(changed);
+        return results;
+    }
+
+    /**
+     * 续期(当前Context 剩余过期时间低于阈值时才续期 过期时间使用默认值)
+     *
+     * @return 是否成功(异步模式下加入队列即返回true)
+     * @since 1.8.0
+     */
+    public Boolean renew() {
         String token = getToken();
         if (token != null) {
-            return getInfoByToken(token);
+            return renew(token);
         }
-        return null;
+        return false;
+    }
+
+    /**
+     * 续期(剩余过期时间低于阈值时才续期 过期时间使用默认值)
+     *
+     * @param request HttpServletRequest
+     * @return 是否成功(异步模式下加入队列即返回true)
+     * @since 1.8.0
+     */
+    public Boolean renew(HttpServletRequest request) {
+        String token = getToken(request);
+        if (token != null) {
+            return renew(token);
+        }
+        return false;
+    }
+
+    /**
+     * 续期(剩余过期时间低于阈值时才续期 过期时间使用默认值)<br>
+     * 未启用续期时等同于设置过期时间
+     *
+     * @param token token
+     * @return 是否成功(异步模式下加入队列即返回true)
+     * @since 1.8.0
+     */
+    public Boolean renew(String token) {
+        if (verify(token) != null) {
+            // 签名token不保存在Redis 不能修改
+            return false;
+        }
+        if (renewCache == null) {
+            return expire(token);
+        }
+        if (isRejected(token)) {
+            return false;
+        }
+        // 距离上次检查还未到阈值
+        if (renewCache.get(token) != null) {
+            return true;
+        }
+        if (renewAsync) {
+            renewQueue.add(token);
+            return true;
+        }
+        return renew(Collections.singletonList(token)).get(0) != -2;
+    }
+
+    /**
+     * 续期多个(按批使用管道)
+     *
+     * @param tokens token列表
+     * @return 续期后的剩余过期时间列表(毫秒，-1不过期，-2不存在)
+     * @since 1.8.0
+     */
+    private List<Long> renew(List<String> tokens) {
+        long timeout = tinyTokenProperties.getTimeout();
+        long threshold = (long) (timeout * 1000 * tinyTokenProperties.getRenew().getThreshold());
+        String[] args = new String[]{String.valueOf(timeout), null, RedisKeys.now(), String.valueOf(threshold)};
+        List<Integer> index = new ArrayList<>(tokens.size());
+        List<List<String>> keys = new ArrayList<>(tokens.size());
+        List<String[]> argsList = new ArrayList<>(tokens.size());
+        long stamp = renewCache.stamp();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            List<String> key = getRenewKeys(token);
+            if (key != null) {
+                String[] arg = args.clone();
+                arg[1] = token;
+                index.add(i);
+                keys.add(key);
+                argsList.add(arg);
+            }
+        }
+        List<Long> list = new ArrayList<>(Collections.nCopies(tokens.size(), -2L));
+        List<Long> results = rt.executeMulti(Script.RENEW, keys, argsList);
+        for (int i = 0; i < results.size(); i++) {
+            String token = tokens.get(index.get(i));
+            long result = results.get(i);
+            if (result == -2 && redisKeys.isIndexMode() && RedisKeys.isEncoded(token)) {
+                // 解析得到的键不存在 可能是使用索引的自定义token
+                String key = getKey(token);
+                if (key != null) {
+                    result = rt.execute(Script.RENEW, redisKeys.getKeys(RedisKeys.parseId(key), token), argsList.get(i));
+                }
+            }
+            list.set(index.get(i), result);
+            if (result == -1) {
+                renewCache.put(token, Boolean.TRUE, timeout * 1000 - threshold, stamp);
+            } else if (result > threshold) {
+                renewCache.put(token, Boolean.TRUE, result - threshold, stamp);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 获取续期使用的键列表(索引模式下32位随机字符串直接解析 不检查是否存在)
+     *
+     * @param token token
+     * @return 键列表(不存在返回null)
+     * @since 1.8.0
+     */
+    private List<String> getRenewKeys(String token) {
+        // 可能超过绝对过期时间的需要先确认键
+        if (redisKeys.isIndexMode() && RedisKeys.isEncoded(token) && !redisKeys.isAbsoluteExpired(RedisKeys.decodeNumber(token))) {
+            return redisKeys.getKeys(RedisKeys.decodeId(token), token);
+        }
+        String key = getKey(token);
+        if (key == null) {
+            return null;
+        }
+        return redisKeys.isIndexMode() ? redisKeys.getKeys(RedisKeys.parseId(key), token) : Collections.singletonList(key);
+    }
+
+    /**
+     * 执行异步续期队列
+     *
+     * @since 1.8.0
+     */
+    private void flushRenew() {
+        List<String> tokens = new ArrayList<>();
+        Iterator<String> iterator = renewQueue.iterator();
+        while (iterator.hasNext()) {
+            tokens.add(iterator.next());
+            iterator.remove();
+        }
+        if (!tokens.isEmpty()) {
+            try {
+                renew(tokens);
+            } catch (RuntimeException e) {
+                log.error("TinyToken异步续期失败，token个数 {}", tokens.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 全量同步撤销列表
+     *
+     * @since 1.8.0
+     */
+    private void syncRevoked() {
+        try {
+            signedTokens.sync();
+        } catch (RuntimeException e) {
+            log.error("TinyToken同步撤销列表失败", e);
+        }
+    }
+
+    /**
+     * 停止调度器(执行剩余异步续期队列)
+     *
+     * @since 1.8.0
+     */
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (renewAsync) {
+            flushRenew();
+        }
+    }
+
+    /**
+     * 获取信息(当前Context)
+     *
+     * @return 信息(不存在返回null)
+     */
+    public TokenInfo getInfoByToken() {
+        return getInfoByToken(getRequest());
     }
 
     /**
@@ -658,6 +1549,10 @@ public class T4s {
     public TokenInfo getInfoByToken(HttpServletRequest request) {
         String token = getToken(request);
         if (token != null) {
+            if (memo) {
+                TokenInfoExtra info = getMemo(request, token);
+                return info != null ? new TokenInfo(info.getId(), token, info.getTimeout()) : null;
+            }
             return getInfoByToken(token);
         }
         return null;
@@ -670,19 +1565,58 @@ public class T4s {
      * @return 信息(不存在返回null)
      */
     public TokenInfo getInfoByToken(String token) {
-        String key = getKey(token);
-        if (key != null) {
-            long expire = rt.getExpire(key);
-            if (expire > -2) {
-                String[] split = key.split(":", -1);
-                if (split.length == 3) {
-                    return new TokenInfo(Long.parseLong(split[1]), token, expire);
-                }
-            }
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            return claims.valid ? new TokenInfo(claims.id, token, claims.timeout) : null;
+        }
+        List<?> value = getValue(token);
+        if (value != null) {
+            return new TokenInfo(RedisKeys.parseId((String) value.get(0)), token, RedisKeys.toSeconds((Long) value.get(2)));
         }
         return null;
     }
 
+    /**
+     * 获取多个信息(按批使用管道 扫描模式下只扫描一次)
+     *
+     * @param tokens token列表
+     * @return 信息列表(与token列表顺序一致 不存在为null)
+     * @since 1.8.0
+     */
+    public List<TokenInfo> getInfoByTokens(Collection<String> tokens) {
+        List<String> list = new ArrayList<>(tokens);
+        long[] expires = new long[list.size()];
+        SignedTokens.Claims[] claims = new SignedTokens.Claims[list.size()];
+        List<String> keys = getKeys(list, expires, claims);
+        List<TokenInfo> infos = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            String token = list.get(i);
+            String key = keys.get(i);
+            if (key != null) {
+                infos.add(new TokenInfo(RedisKeys.parseId(key), token, expires[i]));
+            } else {
+                infos.add(claims[i] != null && claims[i].valid ? new TokenInfo(claims[i].id, token, claims[i].timeout) : null);
+            }
+        }
+        return infos;
+    }
+
+    /**
+     * 多个token是否存在(按批使用管道 扫描模式下只扫描一次)
+     *
+     * @param tokens token列表
+     * @return 是否存在列表(与token列表顺序一致)
+     * @since 1.8.0
+     */
+    public List<Boolean> existByTokens(Collection<String> tokens) {
+        List<TokenInfo> infos = getInfoByTokens(tokens);
+        List<Boolean> list = new ArrayList<>(infos.size());
+        for (TokenInfo info : infos) {
+            list.add(info != null);
+        }
+        return list;
+    }
+
     /**
      * 获取信息列表
      *
@@ -690,18 +1624,7 @@ public class T4s {
      * @return 信息列表(不存在返回[])
      */
     public List<TokenInfo> getInfoById(long id) {
-        List<TokenInfo> list = new ArrayList<>();
-        List<String> keys = getKey(id);
-        for (String key : keys) {
-            long expire = rt.getExpire(key);
-            if (expire > -2) {
-                String[] split = key.split(":", -1);
-                if (split.length == 3) {
-                    list.add(new TokenInfo(id, split[2], expire));
-                }
-            }
-        }
-        return list;
+        return getInfo(getKey(id), false);
     }
 
     /**
@@ -711,18 +1634,7 @@ public class T4s {
      * @since 1.2.0
      */
     public List<TokenInfo> getInfo() {
-        List<TokenInfo> list = new ArrayList<>();
-        List<String> keys = getKey();
-        for (String key : keys) {
-            long expire = rt.getExpire(key);
-            if (expire > -2) {
-                String[] split = key.split(":", -1);
-                if (split.length == 3) {
-                    list.add(new TokenInfo(Long.parseLong(split[1]), split[2], expire));
-                }
-            }
-        }
-        return list;
+        return getInfo(getKey(), false);
     }
 
     /**
@@ -732,14 +1644,48 @@ public class T4s {
      * @since 1.2.0
      */
     public List<TokenInfo> getInfoPersist() {
+        return getInfo(getKey(), true);
+    }
+
+    /**
+     * 获取所有信息流(每批使用管道获取 内存占用与总数无关)
+     *
+     * @return 信息流(使用后需要关闭)
+     * @since 1.8.0
+     */
+    public Stream<TokenInfo> streamInfo() {
+        return stream(keys -> getInfo(keys, false));
+    }
+
+    /**
+     * 获取所有永不过期信息流(每批使用管道获取 内存占用与总数无关)
+     *
+     * @return 信息流(使用后需要关闭)
+     * @since 1.8.0
+     */
+    public Stream<TokenInfo> streamInfoPersist() {
+        return stream(keys -> getInfo(keys, true));
+    }
+
+    /**
+     * 获取信息列表
+     *
+     * @param keys    键列表
+     * @param persist 是否只获取永不过期的
+     * @return 信息列表(不存在返回[])
+     * @since 1.8.0
+     */
+    private List<TokenInfo> getInfo(List<String> keys, boolean persist) {
         List<TokenInfo> list = new ArrayList<>();
-        List<String> keys = getKey();
-        for (String key : keys) {
-            long expire = rt.getExpire(key);
-            if (expire == -1) {
-                String[] split = key.split(":", -1);
-                if (split.length == 3) {
-                    list.add(new TokenInfo(Long.parseLong(split[1]), split[2], expire));
+        if (!keys.isEmpty()) {
+            List<Long> expires = rt.getExpireMulti(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                long expire = expires.get(i);
+                if (persist ? expire == -1 : expire > -2) {
+                    String[] split = keys.get(i).split(":", -1);
+                    if (split.length == 3) {
+                        list.add(new TokenInfo(Long.parseLong(split[1]), split[2], expire));
+                    }
                 }
             }
         }
@@ -752,11 +1698,7 @@ public class T4s {
      * @return 信息拓展(不存在返回null)
      */
     public TokenInfoExtra getInfoExtraByToken() {
-        String token = getToken();
-        if (token != null) {
-            return getInfoExtraByToken(token);
-        }
-        return null;
+        return getInfoExtraByToken(getRequest());
     }
 
     /**
@@ -769,7 +1711,7 @@ public class T4s {
     public TokenInfoExtra getInfoExtraByToken(HttpServletRequest request) {
         String token = getToken(request);
         if (token != null) {
-            return getInfoExtraByToken(token);
+            return memo ? getMemo(request, token) : getInfoExtraByToken(token);
         }
         return null;
     }
@@ -781,15 +1723,13 @@ public class T4s {
      * @return 信息拓展(不存在返回null)
      */
     public TokenInfoExtra getInfoExtraByToken(String token) {
-        String key = getKey(token);
-        if (key != null) {
-            long expire = rt.getExpire(key);
-            if (expire > -2) {
-                String[] split = key.split(":", -1);
-                if (split.length == 3) {
-                    return new TokenInfoExtra(Long.parseLong(split[1]), token, (String) rt.get(key), expire);
-                }
-            }
+        SignedTokens.Claims claims = verify(token);
+        if (claims != null) {
+            return claims.valid ? new TokenInfoExtra(claims.id, token, "", claims.timeout) : null;
+        }
+        List<?> value = getValue(token);
+        if (value != null) {
+            return new TokenInfoExtra(RedisKeys.parseId((String) value.get(0)), token, (String) value.get(1), RedisKeys.toSeconds((Long) value.get(2)));
         }
         return null;
     }
@@ -801,21 +1741,7 @@ public class T4s {
      * @return 信息拓展列表(不存在返回[])
      */
     public List<TokenInfoExtra> getInfoExtraById(long id) {
-        List<TokenInfoExtra> list = new ArrayList<>();
-        List<String> keys = getKey(id);
-        if (!keys.isEmpty()) {
-            List<Object> extras = rt.getMulti(keys);
-            for (int i = 0; i < keys.size(); i++) {
-                long expire = rt.getExpire(keys.get(i));
-                if (expire > -2) {
-                    String[] split = keys.get(i).split(":", -1);
-                    if (split.length == 3) {
-                        list.add(new TokenInfoExtra(id, split[2], (String) extras.get(i), expire));
-                    }
-                }
-            }
-        }
-        return list;
+        return getInfoExtra(getKey(id), false);
     }
 
     /**
@@ -825,21 +1751,7 @@ public class T4s {
      * @since 1.2.0
      */
     public List<TokenInfoExtra> getInfoExtra() {
-        List<TokenInfoExtra> list = new ArrayList<>();
-        List<String> keys = getKey();
-        if (!keys.isEmpty()) {
-            List<Object> extras = rt.getMulti(keys);
-            for (int i = 0; i < keys.size(); i++) {
-                long expire = rt.getExpire(keys.get(i));
-                if (expire > -2) {
-                    String[] split = keys.get(i).split(":", -1);
-                    if (split.length == 3) {
-                        list.add(new TokenInfoExtra(Long.parseLong(split[1]), split[2], (String) extras.get(i), expire));
-                    }
-                }
-            }
-        }
-        return list;
+        return getInfoExtra(getKey(), false);
     }
 
     /**
@@ -849,13 +1761,134 @@ public class T4s {
      * @since 1.2.0
      */
     public List<TokenInfoExtra> getInfoExtraPersist() {
+        return getInfoExtra(getKey(), true);
+    }
+
+    /**
+     * 获取所有信息拓展流(每批使用管道获取 内存占用与总数无关)
+     *
+     * @return 信息拓展流(使用后需要关闭)
+     * @since 1.8.0
+     */
+    public Stream<TokenInfoExtra> streamInfoExtra() {
+        return stream(keys -> getInfoExtra(keys, false));
+    }
+
+    /**
+     * 获取所有永不过期信息拓展流(每批使用管道获取 内存占用与总数无关)
+     *
+     * @return 信息拓展流(使用后需要关闭)
+     * @since 1.8.0
+     */
+    public Stream<TokenInfoExtra> streamInfoExtraPersist() {
+        return stream(keys -> getInfoExtra(keys, true));
+    }
+
+    /**
+     * 统计token个数(扫描所有键 不包含签名token)
+     *
+     * @return token个数
+     * @since 1.8.0
+     */
+    long countToken() {
+        long count = 0;
+        try (Cursor<String> cursor = rt.scanCursor(redisKeys.getMatch())) {
+            for (; cursor.hasNext(); cursor.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取已启用的本地缓存
+     *
+     * @return 名称(near、negative、renew) 本地缓存
+     * @since 1.8.0
+     */
+    Map<String, LocalCache<?>> getLocalCaches() {
+        Map<String, LocalCache<?>> caches = new LinkedHashMap<>();
+        if (nearCache != null) {
+            caches.put("near", nearCache);
+        }
+        if (negativeCache != null) {
+            caches.put("negative", negativeCache);
+        }
+        if (renewCache != null) {
+            caches.put("renew", renewCache);
+        }
+        return caches;
+    }
+
+    /**
+     * 按批扫描所有键
+     *
+     * @param <T>    元素类型
+     * @param loader 每批键的加载器
+     * @return 流(使用后需要关闭 遍历完成时自动关闭)
+     * @since 1.8.0
+     */
+    private <T> Stream<T> stream(Function<List<String>, List<T>> loader) {
+        Cursor<String> cursor = rt.scanCursor(redisKeys.getMatch());
+        int batchSize = tinyTokenProperties.getPipelineBatchSize();
+        Iterator<T> iterator = new Iterator<T>() {
+
+            /**
+             * 当前批
+             */
+            private Iterator<T> batch = Collections.emptyIterator();
+            /**
+             * 是否扫描完成
+             */
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext()) {
+                    if (finished) {
+                        return false;
+                    }
+                    List<String> keys = new ArrayList<>(batchSize);
+                    while (keys.size() < batchSize && cursor.hasNext()) {
+                        keys.add(cursor.next());
+                    }
+                    if (!cursor.hasNext()) {
+                        finished = true;
+                        cursor.close();
+                    }
+                    batch = loader.apply(keys).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(cursor::close);
+    }
+
+    /**
+     * 获取信息拓展列表
+     *
+     * @param keys    键列表
+     * @param persist 是否只获取永不过期的
+     * @return 信息拓展列表(不存在返回[])
+     * @since 1.8.0
+     */
+    private List<TokenInfoExtra> getInfoExtra(List<String> keys, boolean persist) {
         List<TokenInfoExtra> list = new ArrayList<>();
-        List<String> keys = getKey();
         if (!keys.isEmpty()) {
             List<Object> extras = rt.getMulti(keys);
+            List<Long> expires = rt.getExpireMulti(keys);
             for (int i = 0; i < keys.size(); i++) {
-                long expire = rt.getExpire(keys.get(i));
-                if (expire == -1) {
+                long expire = expires.get(i);
+                if (persist ? expire == -1 : expire > -2) {
                     String[] split = keys.get(i).split(":", -1);
                     if (split.length == 3) {
                         list.add(new TokenInfoExtra(Long.parseLong(split[1]), split[2], (String) extras.get(i), expire));
@@ -866,6 +1899,145 @@ public class T4s {
         return list;
     }
 
+    /**
+     * 获取本地缓存(不存在时从Redis加载)
+     *
+     * @param token token
+     * @return 信息拓展(不存在返回null)
+     * @since 1.8.0
+     */
+    private TokenInfoExtra getNearCache(String token) {
+        TokenInfoExtra info = nearCache.get(token);
+        if (info != null) {
+            return deleteIfAbsoluteExpired(token, redisKeys.getKey(info.getId(), token)) ? null : info;
+        }
+        long stamp = nearCache.stamp();
+        List<?> value = getValue(token);
+        if (value == null) {
+            return null;
+        }
+        long expire = (Long) value.get(2);
+        info = new TokenInfoExtra(RedisKeys.parseId((String) value.get(0)), token, (String) value.get(1), RedisKeys.toSeconds(expire));
+        // 不会超过token的过期时间
+        nearCache.put(token, info, expire == -1 ? Long.MAX_VALUE : expire, stamp);
+        return info;
+    }
+
+    /**
+     * 是否在本地判定无效(格式错误、已知的无效token)
+     *
+     * @param token token
+     * @return 是否在本地判定无效
+     * @since 1.8.0
+     */
+    private boolean isRejected(String token) {
+        return redisKeys.isMalformed(token) || isKnownInvalid(token);
+    }
+
+    /**
+     * 超过绝对过期时间时删除token(惰性删除 只删除确认存在的键 记录为无效token防止重复删除)
+     *
+     * @param token token
+     * @param key   查找到的键
+     * @return 是否超过绝对过期时间
+     * @since 1.8.0
+     */
+    private boolean deleteIfAbsoluteExpired(String token, String key) {
+        if (!redisKeys.isAbsoluteExpired(token, key)) {
+            return false;
+        }
+        if (redisKeys.isIndexMode()) {
+            delete(RedisKeys.parseId(key), Collections.singletonList(token));
+        } else {
+            rt.delete(key);
+        }
+        remove(token);
+        putInvalid(token, negativeCache != null ? negativeCache.stamp() : 0);
+        return true;
+    }
+
+    /**
+     * 是否为已知的无效token(无效token缓存)
+     *
+     * @param token token
+     * @return 是否为已知的无效token
+     * @since 1.8.0
+     */
+    private boolean isKnownInvalid(String token) {
+        return negativeCache != null && negativeCache.get(token) != null;
+    }
+
+    /**
+     * 记录无效token(加载期间设置过token则不记录)
+     *
+     * @param token token
+     * @param stamp 加载前获取的失效版本号
+     * @since 1.8.0
+     */
+    private void putInvalid(String token, long stamp) {
+        if (negativeCache != null) {
+            negativeCache.put(token, Boolean.TRUE, Long.MAX_VALUE, stamp);
+        }
+    }
+
+    /**
+     * 验证签名token
+     *
+     * @param token token
+     * @return 声明(未启用、不是签名token或签名错误返回null)
+     * @since 1.8.0
+     */
+    private SignedTokens.Claims verify(String token) {
+        if (signedTokens != null) {
+            return signedTokens.verify(token);
+        }
+        return null;
+    }
+
+    /**
+     * 通知本地缓存失效(所有节点)
+     *
+     * @param token token
+     * @since 1.8.0
+     */
+    private void invalidate(String token) {
+        invalidate(Collections.singletonList(token));
+    }
+
+    /**
+     * 通知本地缓存失效(所有节点)
+     *
+     * @param tokens token列表
+     * @since 1.8.0
+     */
+    private void invalidate(List<String> tokens) {
+        forget(tokens);
+        if (nearCache != null || negativeCache != null || renewCache != null) {
+            for (String token : tokens) {
+                remove(token);
+            }
+            rt.publish(nearCacheChannel, String.join("\n", tokens));
+        }
+    }
+
+    /**
+     * 本地缓存、无效token缓存、续期本地记录失效(当前节点)
+     *
+     * @param token token
+     * @since 1.8.0
+     */
+    private void remove(String token) {
+        if (nearCache != null) {
+            nearCache.remove(token);
+        }
+        if (negativeCache != null) {
+            negativeCache.remove(token);
+        }
+        if (renewCache != null) {
+            renewCache.remove(token);
+        }
+    }
+
     /**
      * 生成32位随机字符串
      *
@@ -875,22 +2047,7 @@ public class T4s {
      * @since 1.2.1
      */
     public static String encode(long n, long id) {
-        StringBuilder result = new StringBuilder(32);
-        for (int i = 0; i < 10; i++) {
-            result.append((char) Base62.ALPHABET[RANDOM.nextInt(62)]);
-        }
-        String number = Base62.encode(n ^ Base62.decode(result.toString()));
-        String encode = Base62.encode(n ^ id);
-        char zero = (char) Base62.ALPHABET[0];
-        for (int i = 0; i < 11 - number.length(); i++) {
-            result.append(zero);
-        }
-        result.append(number);
-        for (int i = 0; i < 11 - encode.length(); i++) {
-            result.append(zero);
-        }
-        result.append(encode);
-        return result.toString();
+        return RedisKeys.encode(n, id, ThreadLocalTokenGenerator.INSTANCE);
     }
 
     /**
@@ -904,9 +2061,54 @@ public class T4s {
      * @since 1.2.1
      */
     public static long[] decode(String s) {
-        long n = Base62.decode(s.substring(0, 10)) ^ Base62.decode(s.substring(10, 21));
+        long n = RedisKeys.decodeNumber(s);
         long[] parse = Id.parse(n);
-        return new long[]{parse[0], parse[1], parse[2], n ^ Base62.decode(s.substring(21, 32))};
+        return new long[]{parse[0], parse[1], parse[2], n ^ Base62.decode(s, 21, 11)};
+    }
+
+    /**
+     * 解析32位随机字符串中的数字(不创建子字符串)
+     *
+     * @param s 32位随机字符串
+     * @return 数字(生成时传入的n)
+     * @since 1.8.0
+     */
+    public static long decodeNumber(CharSequence s) {
+        return RedisKeys.decodeNumber(s);
+    }
+
+    /**
+     * 解析32位随机字符串中的id(不创建子字符串)
+     *
+     * @param s 32位随机字符串
+     * @return id
+     * @since 1.8.0
+     */
+    public static long decodeId(CharSequence s) {
+        return RedisKeys.decodeId(s);
+    }
+
+    /**
+     * <h2>请求内缓存</h2>
+     *
+     * @since 1.8.0
+     */
+    private static final class Memo {
+
+        /**
+         * token
+         */
+        private final String token;
+        /**
+         * 信息拓展(不存在为null)
+         */
+        private final TokenInfoExtra info;
+
+        private Memo(String token, TokenInfoExtra info) {
+            this.token = token;
+            this.info = info;
+        }
+
     }
 
 }
@@ -0,0 +1,343 @@
+package cn.z.tinytoken;
+
+import cn.z.tinytoken.entity.TokenInfo;
+import cn.z.tinytoken.entity.TokenInfoExtra;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <h1>轻量级权限认证异步实现</h1>
+ *
+ * <p>
+ * 在指定的Executor中调用T4s，返回CompletableFuture，多个互不依赖的查询可以并发执行后组合<br>
+ * Executor可以使用虚拟线程(Java 21+ Executors.newVirtualThreadPerTaskExecutor())<br>
+ * 当前Context的token在调用线程中获取，不依赖Executor线程的Context<br>
+ * 调用线程的UserInfo传递到Executor线程
+ * </p>
+ *
+ * <pre>{@code
+ * T4sAsync t4sAsync = new T4sAsync(t4s, executor);
+ * CompletableFuture<Long> id = t4sAsync.getId(token);
+ * CompletableFuture<String> extra = t4sAsync.getExtra(token);
+ * id.thenCombine(extra, (i, e) -> ...);
+ * }</pre>
+ *
+ * <p>
+ * createDate 2026/10/18 15:40:21
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class T4sAsync {
+
+    /**
+     * 轻量级权限认证Spring实现
+     */
+    private final T4s t4s;
+    /**
+     * 执行器
+     */
+    private final Executor executor;
+
+    /**
+     * 构造函数
+     *
+     * @param t4s      T4s
+     * @param executor 执行器(执行Redis操作)
+     */
+    public T4sAsync(T4s t4s, Executor executor) {
+        this.t4s = t4s;
+        this.executor = UserInfo.wrap(executor);
+    }
+
+    /**
+     * 设置token(token使用32位随机字符串 过期时间使用默认值)
+     *
+     * @param id id
+     * @return token
+     */
+    public CompletableFuture<String> setToken(long id) {
+        return supply(() -> t4s.setToken(id));
+    }
+
+    /**
+     * 设置token(token使用32位随机字符串)
+     *
+     * @param id      id
+     * @param timeout 过期时间(秒)
+     * @return token
+     */
+    public CompletableFuture<String> setToken(long id, long timeout) {
+        return supply(() -> t4s.setToken(id, timeout));
+    }
+
+    /**
+     * 设置token
+     *
+     * @param id      id
+     * @param token   token
+     * @param extra   拓展内容
+     * @param timeout 过期时间(秒)
+     * @return 完成
+     */
+    public CompletableFuture<Void> setToken(long id, String token, String extra, long timeout) {
+        return CompletableFuture.runAsync(() -> t4s.setToken(id, token, extra, timeout), executor);
+    }
+
+    /**
+     * 设置拓展内容
+     *
+     * @param token token
+     * @param extra 拓展内容
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> setExtra(String token, String extra) {
+        return supply(() -> t4s.setExtra(token, extra));
+    }
+
+    /**
+     * 获取token(当前Context 判断是否有效)
+     *
+     * @return token(不存在或无效返回null)
+     */
+    public CompletableFuture<String> getTokenValid() {
+        return withToken(token -> t4s.existByToken(token) ? token : null, null);
+    }
+
+    /**
+     * 获取token列表
+     *
+     * @param id id
+     * @return token列表(不存在返回[])
+     */
+    public CompletableFuture<List<String>> getToken(long id) {
+        return supply(() -> t4s.getToken(id));
+    }
+
+    /**
+     * 获取id(当前Context)
+     *
+     * @return id(不存在返回null)
+     */
+    public CompletableFuture<Long> getId() {
+        return withToken(t4s::getId, null);
+    }
+
+    /**
+     * 获取id
+     *
+     * @param token token
+     * @return id(不存在返回null)
+     */
+    public CompletableFuture<Long> getId(String token) {
+        return supply(() -> t4s.getId(token));
+    }
+
+    /**
+     * 获取拓展内容(当前Context)
+     *
+     * @return 拓展内容(不存在返回null)
+     */
+    public CompletableFuture<String> getExtra() {
+        return withToken(t4s::getExtra, null);
+    }
+
+    /**
+     * 获取拓展内容
+     *
+     * @param token token
+     * @return 拓展内容(不存在返回null)
+     */
+    public CompletableFuture<String> getExtra(String token) {
+        return supply(() -> t4s.getExtra(token));
+    }
+
+    /**
+     * token是否存在(当前Context)
+     *
+     * @return 是否存在
+     */
+    public CompletableFuture<Boolean> existByToken() {
+        return withToken(t4s::existByToken, false);
+    }
+
+    /**
+     * token是否存在
+     *
+     * @param token token
+     * @return 是否存在
+     */
+    public CompletableFuture<Boolean> existByToken(String token) {
+        return supply(() -> t4s.existByToken(token));
+    }
+
+    /**
+     * id是否存在
+     *
+     * @param id id
+     * @return 是否存在
+     */
+    public CompletableFuture<Boolean> existById(long id) {
+        return supply(() -> t4s.existById(id));
+    }
+
+    /**
+     * 删除(当前Context)
+     *
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> deleteByToken() {
+        return withToken(t4s::deleteByToken, false);
+    }
+
+    /**
+     * 删除
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> deleteByToken(String token) {
+        return supply(() -> t4s.deleteByToken(token));
+    }
+
+    /**
+     * 删除
+     *
+     * @param id id
+     * @return 成功个数
+     */
+    public CompletableFuture<Long> deleteById(long id) {
+        return supply(() -> t4s.deleteById(id));
+    }
+
+    /**
+     * 设置过期时间(当前Context 过期时间使用默认值)
+     *
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> expire() {
+        return withToken(t4s::expire, false);
+    }
+
+    /**
+     * 设置过期时间
+     *
+     * @param token   token
+     * @param timeout 过期时间(秒)
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> expire(String token, long timeout) {
+        return supply(() -> t4s.expire(token, timeout));
+    }
+
+    /**
+     * 设置永不过期
+     *
+     * @param token token
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> persist(String token) {
+        return supply(() -> t4s.persist(token));
+    }
+
+    /**
+     * 续期(当前Context 剩余过期时间低于阈值时才续期 过期时间使用默认值)
+     *
+     * @return 是否成功
+     */
+    public CompletableFuture<Boolean> renew() {
+        return withToken(t4s::renew, false);
+    }
+
+    /**
+     * 获取信息(当前Context)
+     *
+     * @return 信息(不存在返回null)
+     */
+    public CompletableFuture<TokenInfo> getInfoByToken() {
+        return withToken(t4s::getInfoByToken, null);
+    }
+
+    /**
+     * 获取信息
+     *
+     * @param token token
+     * @return 信息(不存在返回null)
+     */
+    public CompletableFuture<TokenInfo> getInfoByToken(String token) {
+        return supply(() -> t4s.getInfoByToken(token));
+    }
+
+    /**
+     * 获取信息列表
+     *
+     * @param id id
+     * @return 信息列表(不存在返回[])
+     */
+    public CompletableFuture<List<TokenInfo>> getInfoById(long id) {
+        return supply(() -> t4s.getInfoById(id));
+    }
+
+    /**
+     * 获取信息拓展(当前Context)
+     *
+     * @return 信息拓展(不存在返回null)
+     */
+    public CompletableFuture<TokenInfoExtra> getInfoExtraByToken() {
+        return withToken(t4s::getInfoExtraByToken, null);
+    }
+
+    /**
+     * 获取信息拓展
+     *
+     * @param token token
+     * @return 信息拓展(不存在返回null)
+     */
+    public CompletableFuture<TokenInfoExtra> getInfoExtraByToken(String token) {
+        return supply(() -> t4s.getInfoExtraByToken(token));
+    }
+
+    /**
+     * 获取信息拓展列表
+     *
+     * @param id id
+     * @return 信息拓展列表(不存在返回[])
+     */
+    public CompletableFuture<List<TokenInfoExtra>> getInfoExtraById(long id) {
+        return supply(() -> t4s.getInfoExtraById(id));
+    }
+
+    /**
+     * 在执行器中执行
+     *
+     * @param <T>      返回值类型
+     * @param supplier 操作
+     * @return 结果
+     */
+    private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    /**
+     * 在调用线程中获取当前Context的token，在执行器中执行
+     *
+     * @param <T>          返回值类型
+     * @param function     操作
+     * @param defaultValue token不存在时的返回值
+     * @return 结果
+     * @throws TinyTokenException 不存在Context
+     */
+    private <T> CompletableFuture<T> withToken(Function<String, T> function, T defaultValue) {
+        String token = t4s.getToken();
+        if (token == null) {
+            return CompletableFuture.completedFuture(defaultValue);
+        }
+        return supply(() -> function.apply(token));
+    }
+
+}
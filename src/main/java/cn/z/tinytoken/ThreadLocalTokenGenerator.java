@@ -0,0 +1,34 @@
+package cn.z.tinytoken;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <h1>线程本地token生成器</h1>
+ *
+ * <p>
+ * 使用ThreadLocalRandom，每个线程独立的种子，没有竞争，不是密码学安全的
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 17:22:10
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public final class ThreadLocalTokenGenerator implements TokenGenerator {
+
+    /**
+     * 实例
+     */
+    public static final ThreadLocalTokenGenerator INSTANCE = new ThreadLocalTokenGenerator();
+
+    private ThreadLocalTokenGenerator() {
+    }
+
+    @Override
+    public long nextRandom() {
+        return ThreadLocalRandom.current().nextLong(BOUND);
+    }
+
+}
@@ -0,0 +1,58 @@
+package cn.z.tinytoken;
+
+import cn.z.tinytoken.entity.TokenInfoExtra;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * <h1>轻量级权限认证请求内缓存过滤器</h1>
+ *
+ * <p>
+ * 请求开始时通过Redis解析一次token(结果保存在请求属性中 T4s当前Context的方法直接读取)，有效时设置UserInfo，请求结束时恢复
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 19:24:16
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class TinyTokenFilter extends OncePerRequestFilter {
+
+    /**
+     * 轻量级权限认证Spring实现
+     */
+    private final T4s t4s;
+
+    /**
+     * 构造函数
+     *
+     * @param t4s T4s
+     */
+    public TinyTokenFilter(T4s t4s) {
+        this.t4s = t4s;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        TokenInfoExtra info = t4s.getInfoExtraByToken(request);
+        if (info == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        UserInfo.Context previous = UserInfo.getContext();
+        UserInfo.set(info.getId(), info.getToken(), info.getExtra());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            UserInfo.setContext(previous);
+        }
+    }
+
+}
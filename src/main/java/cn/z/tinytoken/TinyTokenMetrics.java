@@ -0,0 +1,264 @@
+package cn.z.tinytoken;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>轻量级权限认证指标</h1>
+ *
+ * <p>
+ * 代理T4s、Rt，记录以下指标：<br>
+ * tinytoken.operation T4s每个操作的耗时(标签operation 直方图使用management.metrics.distribution配置)<br>
+ * tinytoken.rt.calls 每个T4s操作调用Rt方法的次数(标签operation、method 不在T4s操作中为none 管道、批量方法只算一次 不是Redis往返次数)<br>
+ * tinytoken.redis.scan.keys 扫描返回的键个数(包括游标取出的)<br>
+ * tinytoken.cache.requests 本地缓存请求次数(标签cache、result)<br>
+ * tinytoken.sessions.active 有效token个数(需要开启 扫描所有键 最多每分钟一次)
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 18:40:12
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class TinyTokenMetrics {
+
+    /**
+     * 不在T4s操作中
+     */
+    private static final String NONE = "none";
+    /**
+     * 有效token个数刷新间隔(毫秒)
+     */
+    private static final long SESSION_REFRESH_INTERVAL = 60000L;
+    /**
+     * 指标注册表
+     */
+    private final MeterRegistry registry;
+    /**
+     * 当前线程正在执行的T4s操作
+     */
+    private final ThreadLocal<Operation> operation = new ThreadLocal<>();
+    /**
+     * T4s操作(方法名 重载方法共用)
+     */
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    /**
+     * 不在T4s操作中
+     */
+    private final Operation none;
+    /**
+     * 是否记录有效token个数
+     */
+    private final boolean sessions;
+    /**
+     * 有效token个数(Gauge只保存弱引用 需要持有)
+     */
+    private SessionCount sessionCount;
+
+    /**
+     * 构造函数
+     *
+     * @param registry 指标注册表
+     * @param sessions 是否记录有效token个数(扫描所有键)
+     */
+    public TinyTokenMetrics(MeterRegistry registry, boolean sessions) {
+        this.registry = registry;
+        this.sessions = sessions;
+        this.none = new Operation(NONE, null);
+    }
+
+    /**
+     * 代理T4s、Rt并注册指标(其他对象原样返回 先判断Rt 避免没有Servlet时加载T4s)
+     *
+     * @param bean 对象
+     * @return 代理对象
+     */
+    public Object instrument(Object bean) {
+        if (bean instanceof Rt) {
+            Rt rt = (Rt) bean;
+            FunctionCounter.builder("tinytoken.redis.scan.keys", rt, Rt::getScannedKeys)
+                    .description("扫描返回的键个数")
+                    .register(registry);
+            return proxy(rt, invocation -> {
+                Method method = invocation.getMethod();
+                if (method.getDeclaringClass() == Rt.class) {
+                    Operation current = operation.get();
+                    (current != null ? current : none).call(method).increment();
+                }
+                return invocation.proceed();
+            });
+        }
+        if (bean instanceof T4s) {
+            T4s t4s = (T4s) bean;
+            bind(t4s);
+            return proxy(t4s, invocation -> {
+                Method method = invocation.getMethod();
+                if (method.getDeclaringClass() != T4s.class) {
+                    return invocation.proceed();
+                }
+                // 先get 已存在时不创建lambda
+                Operation current = operations.get(method.getName());
+                if (current == null) {
+                    current = operations.computeIfAbsent(method.getName(), name -> new Operation(name, Timer.builder("tinytoken.operation")
+                            .description("T4s操作耗时")
+                            .tag("operation", name)
+                            .register(registry)));
+                }
+                Operation previous = operation.get();
+                operation.set(current);
+                long start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    current.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (previous == null) {
+                        operation.remove();
+                    } else {
+                        operation.set(previous);
+                    }
+                }
+            });
+        }
+        return bean;
+    }
+
+    /**
+     * 注册本地缓存、有效token个数(开启时)指标
+     *
+     * @param t4s T4s
+     */
+    private void bind(T4s t4s) {
+        for (Map.Entry<String, LocalCache<?>> entry : t4s.getLocalCaches().entrySet()) {
+            LocalCache<?> cache = entry.getValue();
+            FunctionCounter.builder("tinytoken.cache.requests", cache, LocalCache::hitCount)
+                    .description("本地缓存请求次数")
+                    .tag("cache", entry.getKey())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("tinytoken.cache.requests", cache, LocalCache::missCount)
+                    .description("本地缓存请求次数")
+                    .tag("cache", entry.getKey())
+                    .tag("result", "miss")
+                    .register(registry);
+        }
+        if (!sessions) {
+            return;
+        }
+        sessionCount = new SessionCount(t4s);
+        Gauge.builder("tinytoken.sessions.active", sessionCount, SessionCount::get)
+                .description("有效token个数")
+                .register(registry);
+    }
+
+    /**
+     * 创建代理(代理类)
+     *
+     * @param target      目标对象
+     * @param interceptor 拦截器
+     * @return 代理对象
+     */
+    private static Object proxy(Object target, MethodInterceptor interceptor) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return factory.getProxy(target.getClass().getClassLoader());
+    }
+
+    /**
+     * <h2>T4s操作(耗时、Rt方法调用次数 按方法名两级查找 记录时不拼接字符串)</h2>
+     */
+    private final class Operation {
+
+        /**
+         * 操作名
+         */
+        private final String name;
+        /**
+         * 耗时(不在T4s操作中为null)
+         */
+        private final Timer timer;
+        /**
+         * Rt方法调用次数(Rt方法名 重载方法共用)
+         */
+        private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+        private Operation(String name, Timer timer) {
+            this.name = name;
+            this.timer = timer;
+        }
+
+        /**
+         * 获取Rt方法调用次数计数器(首次使用时注册)
+         *
+         * @param method Rt方法
+         * @return 计数器
+         */
+        private LongAdder call(Method method) {
+            LongAdder adder = calls.get(method.getName());
+            if (adder != null) {
+                return adder;
+            }
+            return calls.computeIfAbsent(method.getName(), m -> {
+                LongAdder created = new LongAdder();
+                FunctionCounter.builder("tinytoken.rt.calls", created, LongAdder::sum)
+                        .description("调用Rt方法的次数(管道、批量方法只算一次)")
+                        .tag("operation", name)
+                        .tag("method", m)
+                        .register(registry);
+                return created;
+            });
+        }
+
+    }
+
+    /**
+     * <h2>有效token个数(缓存结果 到期后再次获取时刷新)</h2>
+     */
+    private static final class SessionCount {
+
+        /**
+         * T4s
+         */
+        private final T4s t4s;
+        /**
+         * 个数
+         */
+        private volatile long count;
+        /**
+         * 下次刷新时间戳(毫秒)
+         */
+        private volatile long refreshAt;
+
+        private SessionCount(T4s t4s) {
+            this.t4s = t4s;
+        }
+
+        /**
+         * 获取个数
+         *
+         * @return 个数
+         */
+        private synchronized double get() {
+            long now = System.currentTimeMillis();
+            if (now >= refreshAt) {
+                count = t4s.countToken();
+                refreshAt = now + SESSION_REFRESH_INTERVAL;
+            }
+            return count;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package cn.z.tinytoken;
+
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
+
+/**
+ * <h1>token生成器</h1>
+ *
+ * <p>
+ * 生成32位随机字符串的前10位随机部分，格式不变，T4s.decode可以正常解析
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 17:20:44
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public interface TokenGenerator {
+
+    /**
+     * 随机数上限(不包含 10位Base62)
+     */
+    long BOUND = 839299365868340224L;
+
+    /**
+     * 生成随机数
+     *
+     * @return 随机数(0 ~ BOUND-1)
+     */
+    long nextRandom();
+
+    /**
+     * 根据配置创建token生成器
+     *
+     * @param generator 生成器配置
+     * @return token生成器
+     */
+    static TokenGenerator of(TinyTokenProperties.Generator generator) {
+        if (generator.getMode() == TinyTokenProperties.GeneratorMode.SECURE) {
+            return new SecureTokenGenerator(generator.getBufferSize());
+        }
+        return ThreadLocalTokenGenerator.INSTANCE;
+    }
+
+}
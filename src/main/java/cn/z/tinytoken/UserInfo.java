@@ -2,10 +2,18 @@ package cn.z.tinytoken;
 
 import org.springframework.core.NamedThreadLocal;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
 /**
  * <h1>用户信息</h1>
  *
  * <p>
+ * 一个ThreadLocal保存不可变的上下文，修改时替换整个上下文<br>
+ * 使用wrap或UserInfoTaskDecorator传递到其他线程(线程池、虚拟线程)，执行后恢复该线程原来的上下文
+ * </p>
+ *
+ * <p>
  * createDate 2023/12/19 10:04:24
  * </p>
  *
@@ -18,52 +26,220 @@ public class UserInfo {
     }
 
     /**
-     * id
-     */
-    private static final ThreadLocal<Long> ID = new NamedThreadLocal<>("UserInfo Id");
-    /**
-     * token
+     * 上下文
      */
-    private static final ThreadLocal<String> TOKEN = new NamedThreadLocal<>("UserInfo Token");
-    /**
-     * 拓展内容
-     */
-    private static final ThreadLocal<String> EXTRA = new NamedThreadLocal<>("UserInfo Extra");
+    private static final ThreadLocal<Context> CONTEXT = new NamedThreadLocal<>("UserInfo");
 
     public static Long getId() {
-        return ID.get();
+        Context context = CONTEXT.get();
+        return context != null ? context.id : null;
     }
 
     public static void setId(Long id) {
-        ID.set(id);
+        Context context = CONTEXT.get();
+        setContext(context != null ? new Context(id, context.token, context.extra) : new Context(id, null, null));
     }
 
     public static void removeId() {
-        ID.remove();
+        Context context = CONTEXT.get();
+        if (context != null) {
+            setContext(new Context(null, context.token, context.extra));
+        }
     }
 
     public static String getToken() {
-        return TOKEN.get();
+        Context context = CONTEXT.get();
+        return context != null ? context.token : null;
     }
 
     public static void setToken(String token) {
-        TOKEN.set(token);
+        Context context = CONTEXT.get();
+        setContext(context != null ? new Context(context.id, token, context.extra) : new Context(null, token, null));
     }
 
     public static void removeToken() {
-        TOKEN.remove();
+        Context context = CONTEXT.get();
+        if (context != null) {
+            setContext(new Context(context.id, null, context.extra));
+        }
     }
 
     public static String getExtra() {
-        return EXTRA.get();
+        Context context = CONTEXT.get();
+        return context != null ? context.extra : null;
     }
 
     public static void setExtra(String extra) {
-        EXTRA.set(extra);
+        Context context = CONTEXT.get();
+        setContext(context != null ? new Context(context.id, context.token, extra) : new Context(null, null, extra));
     }
 
     public static void removeExtra() {
-        EXTRA.remove();
+        Context context = CONTEXT.get();
+        if (context != null) {
+            setContext(new Context(context.id, context.token, null));
+        }
+    }
+
+    /**
+     * 设置id、token、拓展内容
+     *
+     * @param id    id
+     * @param token token
+     * @param extra 拓展内容
+     * @since 1.8.0
+     */
+    public static void set(Long id, String token, String extra) {
+        setContext(new Context(id, token, extra));
+    }
+
+    /**
+     * 清除id、token、拓展内容
+     *
+     * @since 1.8.0
+     */
+    public static void clear() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * 获取上下文
+     *
+     * @return 上下文(不存在返回null)
+     * @since 1.8.0
+     */
+    public static Context getContext() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 设置上下文
+     *
+     * @param context 上下文(null或全部为null时清除)
+     * @since 1.8.0
+     */
+    public static void setContext(Context context) {
+        if (context == null || context.isEmpty()) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(context);
+        }
+    }
+
+    /**
+     * 包装任务(传递当前线程的上下文)
+     *
+     * @param runnable 任务
+     * @return 包装后的任务(当前线程不存在上下文时返回原任务)
+     * @since 1.8.0
+     */
+    public static Runnable wrap(Runnable runnable) {
+        Context context = CONTEXT.get();
+        if (context == null) {
+            return runnable;
+        }
+        return () -> {
+            Context previous = CONTEXT.get();
+            CONTEXT.set(context);
+            try {
+                runnable.run();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装任务(传递当前线程的上下文)
+     *
+     * @param <T>      返回值类型
+     * @param callable 任务
+     * @return 包装后的任务(当前线程不存在上下文时返回原任务)
+     * @since 1.8.0
+     */
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        Context context = CONTEXT.get();
+        if (context == null) {
+            return callable;
+        }
+        return () -> {
+            Context previous = CONTEXT.get();
+            CONTEXT.set(context);
+            try {
+                return callable.call();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装执行器(提交任务时传递提交线程的上下文)
+     *
+     * @param executor 执行器
+     * @return 包装后的执行器
+     * @since 1.8.0
+     */
+    public static Executor wrap(Executor executor) {
+        return runnable -> executor.execute(wrap(runnable));
+    }
+
+    /**
+     * <h2>上下文(不可变)</h2>
+     *
+     * @since 1.8.0
+     */
+    public static final class Context {
+
+        /**
+         * id
+         */
+        private final Long id;
+        /**
+         * token
+         */
+        private final String token;
+        /**
+         * 拓展内容
+         */
+        private final String extra;
+
+        public Context(Long id, String token, String extra) {
+            this.id = id;
+            this.token = token;
+            this.extra = extra;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        /**
+         * 是否全部为null
+         *
+         * @return 是否全部为null
+         */
+        private boolean isEmpty() {
+            return id == null && token == null && extra == null;
+        }
+
+        @Override
+        public String toString() {
+            return "Context{" +
+                    "id=" + id +
+                    ", token='" + token + '\'' +
+                    ", extra='" + extra + '\'' +
+                    '}';
+        }
+
     }
 
 }
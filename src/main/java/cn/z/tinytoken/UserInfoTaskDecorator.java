@@ -0,0 +1,27 @@
+package cn.z.tinytoken;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * <h1>用户信息任务装饰器</h1>
+ *
+ * <p>
+ * 提交任务时传递提交线程的UserInfo，执行后恢复执行线程原来的UserInfo<br>
+ * 启用propagation.enabled且不存在其他TaskDecorator时自动配置，@Async默认执行器(TaskExecutorBuilder)自动使用
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 19:48:37
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ **/
+public class UserInfoTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return UserInfo.wrap(runnable);
+    }
+
+}
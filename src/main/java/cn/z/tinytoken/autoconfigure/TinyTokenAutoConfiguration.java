@@ -1,8 +1,14 @@
 package cn.z.tinytoken.autoconfigure;
 
+import cn.z.tinytoken.UserInfoTaskDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskDecorator;
 
 /**
  * <h1>轻量级权限认证自动配置</h1>
@@ -15,6 +21,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
  * @since 1.0.0
  */
 @EnableConfigurationProperties(TinyTokenProperties.class)
+@Import({TinyTokenMetricsConfiguration.class, TinyTokenMemoConfiguration.class})
 public class TinyTokenAutoConfiguration {
 
     /**
@@ -31,4 +38,17 @@ public class TinyTokenAutoConfiguration {
         log.info("TinyToken配置：header HEADER {} ，前缀PREFIX {} ，过期时间TIMEOUT {} (秒)", tinyTokenProperties.getHeader(), tinyTokenProperties.getPrefix(), tinyTokenProperties.getTimeout());
     }
 
+    /**
+     * 用户信息任务装饰器(启用用户信息传递且不存在其他TaskDecorator时 @Async默认执行器传递UserInfo)
+     *
+     * @return UserInfoTaskDecorator
+     * @since 1.8.0
+     */
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    @ConditionalOnProperty(prefix = "tiny-token", name = "propagation.enabled", havingValue = "true")
+    public UserInfoTaskDecorator userInfoTaskDecorator() {
+        return new UserInfoTaskDecorator();
+    }
+
 }
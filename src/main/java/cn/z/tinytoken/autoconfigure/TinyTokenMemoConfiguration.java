@@ -0,0 +1,43 @@
+package cn.z.tinytoken.autoconfigure;
+
+import cn.z.tinytoken.T4s;
+import cn.z.tinytoken.TinyTokenFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.filter.OrderedFilter;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * <h1>轻量级权限认证请求内缓存配置</h1>
+ *
+ * <p>
+ * 由TinyTokenAutoConfiguration导入，Servlet应用启用请求内缓存时注册过滤器(在RequestContextFilter之后)
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 19:26:05
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "tiny-token", name = "memo.enabled", havingValue = "true")
+public class TinyTokenMemoConfiguration {
+
+    /**
+     * 请求内缓存过滤器
+     *
+     * @param t4s T4s
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<TinyTokenFilter> tinyTokenFilter(T4s t4s) {
+        FilterRegistrationBean<TinyTokenFilter> registration = new FilterRegistrationBean<>(new TinyTokenFilter(t4s));
+        // OrderedRequestContextFilter为-105
+        registration.setOrder(OrderedFilter.REQUEST_WRAPPER_FILTER_MAX_ORDER - 104);
+        return registration;
+    }
+
+}
@@ -0,0 +1,83 @@
+package cn.z.tinytoken.autoconfigure;
+
+import cn.z.tinytoken.Rt;
+import cn.z.tinytoken.TinyTokenMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * <h1>轻量级权限认证指标配置</h1>
+ *
+ * <p>
+ * 存在Micrometer时由TinyTokenAutoConfiguration导入，存在MeterRegistry时代理T4s、Rt记录指标
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 18:52:30
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ */
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class TinyTokenMetricsConfiguration {
+
+    /**
+     * T4s类名(依赖Servlet 不直接引用)
+     */
+    private static final String T4S = "cn.z.tinytoken.T4s";
+
+    /**
+     * 指标后置处理器
+     *
+     * @param registry            MeterRegistry
+     * @param tinyTokenProperties TinyTokenProperties
+     * @return BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor tinyTokenMetricsPostProcessor(ObjectProvider<MeterRegistry> registry, ObjectProvider<TinyTokenProperties> tinyTokenProperties) {
+        return new BeanPostProcessor() {
+
+            /**
+             * 指标(首次遇到T4s、Rt时创建 不存在MeterRegistry为null)
+             */
+            private TinyTokenMetrics metrics;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof Rt || isT4s(bean.getClass()))) {
+                    return bean;
+                }
+                if (metrics == null) {
+                    MeterRegistry meterRegistry = registry.getIfAvailable();
+                    if (meterRegistry == null) {
+                        return bean;
+                    }
+                    TinyTokenProperties properties = tinyTokenProperties.getIfAvailable(TinyTokenProperties::new);
+                    metrics = new TinyTokenMetrics(meterRegistry, properties.getMetrics().isSessionsEnabled());
+                }
+                return metrics.instrument(bean);
+            }
+
+        };
+    }
+
+    /**
+     * 是否为T4s或其子类
+     *
+     * @param clazz 类
+     * @return 是否为T4s或其子类
+     */
+    private static boolean isT4s(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            if (T4S.equals(c.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -27,6 +27,90 @@ public class TinyTokenProperties {
      * 过期时间(秒)(默认值2592000[30天])
      */
     private long timeout = 2592000L;
+    /**
+     * 绝对过期时间(秒)(32位随机字符串生成后超过该时间无效 不受续期、永不过期影响 默认值0[不限制])
+     *
+     * @since 1.8.0
+     */
+    private long absoluteTimeout = 0L;
+    /**
+     * 查找模式(默认值SCAN)
+     *
+     * @since 1.8.0
+     */
+    private LookupMode lookupMode = LookupMode.SCAN;
+    /**
+     * 一次扫描条数(默认值1000)
+     *
+     * @since 1.8.0
+     */
+    private long scanCount = 1000L;
+    /**
+     * 扫描超时时间(毫秒)(扫描模式下通过token查找键 默认值0[不限制] 每扫描到一个键时检查 超时抛出ScanTimeoutException 不缓存为无效token)
+     *
+     * @since 1.8.0
+     */
+    private long scanTimeout = 0L;
+    /**
+     * 管道一批条数(默认值1000)
+     *
+     * @since 1.8.0
+     */
+    private int pipelineBatchSize = 1000;
+    /**
+     * token生成器
+     *
+     * @since 1.8.0
+     */
+    private final Generator generator = new Generator();
+    /**
+     * token格式预校验
+     *
+     * @since 1.8.0
+     */
+    private final Validation validation = new Validation();
+    /**
+     * 本地缓存
+     *
+     * @since 1.8.0
+     */
+    private final NearCache nearCache = new NearCache();
+    /**
+     * 无效token缓存
+     *
+     * @since 1.8.0
+     */
+    private final NegativeCache negativeCache = new NegativeCache();
+    /**
+     * 续期
+     *
+     * @since 1.8.0
+     */
+    private final Renew renew = new Renew();
+    /**
+     * 签名token
+     *
+     * @since 1.8.0
+     */
+    private final Signed signed = new Signed();
+    /**
+     * 请求内缓存
+     *
+     * @since 1.8.0
+     */
+    private final Memo memo = new Memo();
+    /**
+     * 指标
+     *
+     * @since 1.8.0
+     */
+    private final Metrics metrics = new Metrics();
+    /**
+     * 用户信息传递
+     *
+     * @since 1.8.0
+     */
+    private final Propagation propagation = new Propagation();
 
     public String getHeader() {
         return header;
@@ -52,4 +136,565 @@ public class TinyTokenProperties {
         this.timeout = timeout;
     }
 
+    public long getAbsoluteTimeout() {
+        return absoluteTimeout;
+    }
+
+    public void setAbsoluteTimeout(long absoluteTimeout) {
+        this.absoluteTimeout = absoluteTimeout;
+    }
+
+    public LookupMode getLookupMode() {
+        return lookupMode;
+    }
+
+    public void setLookupMode(LookupMode lookupMode) {
+        this.lookupMode = lookupMode;
+    }
+
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    public void setScanCount(long scanCount) {
+        this.scanCount = scanCount;
+    }
+
+    public long getScanTimeout() {
+        return scanTimeout;
+    }
+
+    public void setScanTimeout(long scanTimeout) {
+        this.scanTimeout = scanTimeout;
+    }
+
+    public int getPipelineBatchSize() {
+        return pipelineBatchSize;
+    }
+
+    public void setPipelineBatchSize(int pipelineBatchSize) {
+        this.pipelineBatchSize = pipelineBatchSize;
+    }
+
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    public Validation getValidation() {
+        return validation;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    public Renew getRenew() {
+        return renew;
+    }
+
+    public Signed getSigned() {
+        return signed;
+    }
+
+    public Memo getMemo() {
+        return memo;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Propagation getPropagation() {
+        return propagation;
+    }
+
+    /**
+     * <h2>查找模式</h2>
+     *
+     * @since 1.8.0
+     */
+    public enum LookupMode {
+
+        /**
+         * 扫描(通过token查找键时扫描所有键 兼容旧数据)
+         */
+        SCAN,
+        /**
+         * 索引(32位随机字符串直接解析出id 自定义token使用索引 不扫描)
+         */
+        INDEX
+
+    }
+
+    /**
+     * <h2>续期模式</h2>
+     *
+     * @since 1.8.0
+     */
+    public enum RenewMode {
+
+        /**
+         * 同步(在调用线程中续期)
+         */
+        SYNC,
+        /**
+         * 异步(加入队列 后台按批续期 调用线程不等待)
+         */
+        ASYNC
+
+    }
+
+    /**
+     * <h2>token生成器模式</h2>
+     *
+     * @since 1.8.0
+     */
+    public enum GeneratorMode {
+
+        /**
+         * 线程本地(ThreadLocalRandom 没有竞争 不是密码学安全的)
+         */
+        THREAD_LOCAL,
+        /**
+         * 安全(SecureRandom 分段批量填充缓冲区 密码学安全)
+         */
+        SECURE
+
+    }
+
+    /**
+     * <h2>token生成器</h2>
+     *
+     * <p>
+     * 生成32位随机字符串的随机部分，格式不变
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Generator {
+
+        /**
+         * 模式(默认值THREAD_LOCAL)
+         */
+        private GeneratorMode mode = GeneratorMode.THREAD_LOCAL;
+        /**
+         * 缓冲区大小(安全模式下每个分段一次填充的随机数个数 默认值128)
+         */
+        private int bufferSize = 128;
+
+        public GeneratorMode getMode() {
+            return mode;
+        }
+
+        public void setMode(GeneratorMode mode) {
+            this.mode = mode;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+    }
+
+    /**
+     * <h2>token格式预校验</h2>
+     *
+     * <p>
+     * 访问Redis前在本地校验token格式(32位随机字符串 长度、字符、时间戳)，不符合的直接判定无效<br>
+     * 启用后自定义token全部无效，使用自定义token时不能启用
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Validation {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+        /**
+         * 最大时长(秒)(token生成时间早于该时长之前的无效 默认值0[不校验])
+         */
+        private long maxAge = 0L;
+        /**
+         * 允许的时钟偏差(毫秒)(token生成时间晚于当前时间加该偏差的无效 默认值60000[1分钟] 签名token按id撤销时只撤销生成时间早于撤销时间减该偏差的)
+         */
+        private long clockSkew = 60000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(long maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public long getClockSkew() {
+            return clockSkew;
+        }
+
+        public void setClockSkew(long clockSkew) {
+            this.clockSkew = clockSkew;
+        }
+
+    }
+
+    /**
+     * <h2>本地缓存</h2>
+     *
+     * <p>
+     * 缓存token对应的id、拓展内容，修改时通过Redis发布订阅通知所有节点失效
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class NearCache {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+        /**
+         * 最大条数(默认值10000)
+         */
+        private int maximumSize = 10000;
+        /**
+         * 过期时间(毫秒)(默认值10000[10秒] 不会超过token的过期时间)
+         */
+        private long timeout = 10000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+    }
+
+    /**
+     * <h2>无效token缓存</h2>
+     *
+     * <p>
+     * 缓存Redis中不存在的token，在过期时间内直接判定无效，不再访问Redis(防止大量伪造token扫描Redis)<br>
+     * 设置token时通过Redis发布订阅通知所有节点失效
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class NegativeCache {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+        /**
+         * 最大条数(默认值10000)
+         */
+        private int maximumSize = 10000;
+        /**
+         * 过期时间(毫秒)(默认值5000[5秒])
+         */
+        private long timeout = 5000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+    }
+
+    /**
+     * <h2>续期</h2>
+     *
+     * <p>
+     * 剩余过期时间低于过期时间的一定比例时才续期，续期后在本地记录下次需要检查的时间，之前的请求不再访问Redis
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Renew {
+
+        /**
+         * 是否启用(默认值false 未启用时续期等同于设置过期时间)
+         */
+        private boolean enabled = false;
+        /**
+         * 续期阈值(剩余过期时间低于过期时间的比例时续期 默认值0.5)
+         */
+        private double threshold = 0.5;
+        /**
+         * 续期模式(默认值SYNC)
+         */
+        private RenewMode mode = RenewMode.SYNC;
+        /**
+         * 异步续期间隔(毫秒)(默认值1000[1秒])
+         */
+        private long flushInterval = 1000L;
+        /**
+         * 本地记录最大条数(默认值10000)
+         */
+        private int maximumSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public RenewMode getMode() {
+            return mode;
+        }
+
+        public void setMode(RenewMode mode) {
+            this.mode = mode;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+    }
+
+    /**
+     * <h2>签名token</h2>
+     *
+     * <p>
+     * setToken(id)生成的token包含id、过期时间和签名，本地验证，不访问Redis<br>
+     * Redis中只保存撤销列表，启动时加载，通过发布订阅同步
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Signed {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+        /**
+         * 签名密钥(启用时必填 所有节点需要相同)
+         */
+        private String secret = "";
+        /**
+         * 最大过期时间(秒)(默认值0[使用过期时间] 签名token的过期时间不能超过该值，按id撤销的记录保留该时长)
+         */
+        private long maxTimeout = 0L;
+        /**
+         * 撤销列表全量同步间隔(毫秒)(默认值60000[1分钟] 防止丢失发布订阅消息)
+         */
+        private long syncInterval = 60000L;
+        /**
+         * 撤销列表布隆过滤器容量(默认值100000 每个时间桶[最大过期时间]内过期的token预计撤销的个数 超出后误判率升高)
+         */
+        private long revokeCapacity = 100000L;
+        /**
+         * 撤销列表布隆过滤器误判率(默认值0.01 误判时访问Redis确认)
+         */
+        private double revokeFalsePositiveRate = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public long getMaxTimeout() {
+            return maxTimeout;
+        }
+
+        public void setMaxTimeout(long maxTimeout) {
+            this.maxTimeout = maxTimeout;
+        }
+
+        public long getSyncInterval() {
+            return syncInterval;
+        }
+
+        public void setSyncInterval(long syncInterval) {
+            this.syncInterval = syncInterval;
+        }
+
+        public long getRevokeCapacity() {
+            return revokeCapacity;
+        }
+
+        public void setRevokeCapacity(long revokeCapacity) {
+            this.revokeCapacity = revokeCapacity;
+        }
+
+        public double getRevokeFalsePositiveRate() {
+            return revokeFalsePositiveRate;
+        }
+
+        public void setRevokeFalsePositiveRate(double revokeFalsePositiveRate) {
+            this.revokeFalsePositiveRate = revokeFalsePositiveRate;
+        }
+
+    }
+
+    /**
+     * <h2>请求内缓存</h2>
+     *
+     * <p>
+     * 每个HTTP请求只通过Redis解析一次token(id、拓展内容、过期时间)，结果保存在请求属性中，当前Context的方法直接读取<br>
+     * 自动注册过滤器，请求开始时解析token并设置UserInfo，请求结束时清除<br>
+     * 通过T4s修改当前token时缓存失效，过期时间为解析时的值
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Memo {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+    }
+
+    /**
+     * <h2>指标</h2>
+     *
+     * <p>
+     * 存在MeterRegistry时生效
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Metrics {
+
+        /**
+         * 是否记录有效token个数(默认值false 扫描所有键 每个节点最多每分钟一次)
+         */
+        private boolean sessionsEnabled = false;
+
+        public boolean isSessionsEnabled() {
+            return sessionsEnabled;
+        }
+
+        public void setSessionsEnabled(boolean sessionsEnabled) {
+            this.sessionsEnabled = sessionsEnabled;
+        }
+
+    }
+
+    /**
+     * <h2>用户信息传递</h2>
+     *
+     * <p>
+     * 启用且不存在其他TaskDecorator时自动配置UserInfoTaskDecorator(@Async默认执行器传递UserInfo)
+     * </p>
+     *
+     * @since 1.8.0
+     */
+    public static class Propagation {
+
+        /**
+         * 是否启用(默认值false)
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+    }
+
 }
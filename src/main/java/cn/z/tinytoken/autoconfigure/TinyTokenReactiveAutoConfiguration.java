@@ -0,0 +1,79 @@
+package cn.z.tinytoken.autoconfigure;
+
+import cn.z.tinytoken.ReactiveRt;
+import cn.z.tinytoken.ReactiveT4s;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+/**
+ * <h1>轻量级权限认证响应式自动配置</h1>
+ *
+ * <p>
+ * 存在WebFlux和ReactiveRedisConnectionFactory(Lettuce)时生效<br>
+ * ReactiveT4s不支持签名token：启用签名token时只在响应式Web应用中创建(启动失败)，其他应用中不创建
+ * </p>
+ *
+ * <p>
+ * createDate 2026/10/18 15:10:44
+ * </p>
+ *
+ * @author ALI[ali-k@foxmail.com]
+ * @since 1.8.0
+ */
+@AutoConfigureAfter(name = "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration")
+@ConditionalOnClass(name = {"org.springframework.web.server.ServerWebExchange", "reactor.core.publisher.Mono"})
+@ConditionalOnBean(ReactiveRedisConnectionFactory.class)
+public class TinyTokenReactiveAutoConfiguration {
+
+    /**
+     * 响应式Redis模板
+     *
+     * @param factory             ReactiveRedisConnectionFactory
+     * @param tinyTokenProperties TinyTokenProperties
+     * @return ReactiveRt
+     */
+    @Bean
+    public ReactiveRt reactiveRt(ReactiveRedisConnectionFactory factory, TinyTokenProperties tinyTokenProperties) {
+        return new ReactiveRt(factory, tinyTokenProperties);
+    }
+
+    /**
+     * 轻量级权限认证响应式实现
+     *
+     * @param tinyTokenProperties TinyTokenProperties
+     * @param reactiveRt          ReactiveRt
+     * @return ReactiveT4s
+     */
+    @Bean
+    @Conditional(ReactiveT4sCondition.class)
+    public ReactiveT4s reactiveT4s(TinyTokenProperties tinyTokenProperties, ReactiveRt reactiveRt) {
+        return new ReactiveT4s(tinyTokenProperties, reactiveRt);
+    }
+
+    /**
+     * <h2>创建ReactiveT4s的条件(未启用签名token或响应式Web应用)</h2>
+     */
+    static class ReactiveT4sCondition extends AnyNestedCondition {
+
+        ReactiveT4sCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "tiny-token", name = "signed.enabled", havingValue = "false", matchIfMissing = true)
+        static class SignedDisabled {
+        }
+
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+        static class ReactiveWebApplication {
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package cn.z.tinytoken;
 
 import cn.z.id.Id;
+import cn.z.tinytoken.autoconfigure.TinyTokenProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -8,11 +9,16 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * <h1>轻量级权限认证测试</h1>
@@ -31,10 +37,12 @@ import java.sql.Timestamp;
 class TinyTokenTest {
 
     private final T4s t4s;
+    private final Rt rt;
 
     @Autowired
-    TinyTokenTest(T4s t4s) {
+    TinyTokenTest(T4s t4s, Rt rt) {
         this.t4s = t4s;
+        this.rt = rt;
     }
 
     /**
@@ -66,4 +74,243 @@ class TinyTokenTest {
         assert n == number;
     }
 
+    /**
+     * 本地缓存
+     */
+    @Test
+    void test03LocalCache() {
+        LocalCache<String> cache = new LocalCache<>(10, 10000);
+        long stamp = cache.stamp();
+        cache.put("a", "1", 10000, stamp);
+        assert "1".equals(cache.get("a"));
+        // 过期时间不超过指定值
+        cache.put("b", "2", 0, stamp);
+        assert cache.get("b") == null;
+        // 加载期间失效则不放入
+        cache.remove("c");
+        cache.put("c", "3", 10000, stamp);
+        assert cache.get("c") == null;
+        // 其他键失效不影响
+        cache.put("d", "4", 10000, stamp);
+        assert "4".equals(cache.get("d"));
+        // 超出最大条数淘汰
+        for (int i = 0; i < 20; i++) {
+            cache.put(String.valueOf(i), "", 10000, cache.stamp());
+        }
+        log.info("size {}", cache.size());
+        assert cache.size() <= 10;
+    }
+
+    /**
+     * Base62定长编解码
+     */
+    @Test
+    void test04Base62() {
+        for (long n : new long[]{0, 61, 62, Long.MAX_VALUE}) {
+            char[] chars = new char[13];
+            Base62.encode(n, chars, 1, 11);
+            StringBuilder sb = new StringBuilder("-");
+            Base62.encode(n, 11, sb);
+            log.info("{} -> {}", n, sb);
+            assert n == Base62.decode(new String(chars), 1, 11);
+            assert n == Base62.decode(sb, 1, 11);
+            assert n == Base62.decode(Base62.encode(n));
+        }
+        // 非Base62字符
+        for (String s : new String[]{"-", "0_", "中"}) {
+            boolean thrown = false;
+            try {
+                Base62.decode(s);
+            } catch (IllegalArgumentException e) {
+                log.info(e.getMessage());
+                thrown = true;
+            }
+            assert thrown;
+        }
+    }
+
+    /**
+     * 安全token生成器
+     */
+    @Test
+    void test05SecureTokenGenerator() {
+        SecureTokenGenerator generator = new SecureTokenGenerator(16);
+        for (int i = 0; i < 1000; i++) {
+            long random = generator.nextRandom();
+            assert random >= 0 && random < TokenGenerator.BOUND;
+        }
+        String token = RedisKeys.encode(Id.next(), 1234L, generator);
+        log.info(token);
+        assert RedisKeys.isEncoded(token);
+        assert RedisKeys.decodeId(token) == 1234L;
+    }
+
+    /**
+     * token格式预校验
+     */
+    @Test
+    void test06Malformed() {
+        TinyTokenProperties properties = new TinyTokenProperties();
+        RedisKeys redisKeys = new RedisKeys(properties);
+        // 未启用时不校验
+        assert !redisKeys.isMalformed("1234");
+        properties.getValidation().setEnabled(true);
+        properties.getValidation().setMaxAge(3600);
+        redisKeys = new RedisKeys(properties);
+        long machine = Id.parse(Id.next())[1];
+        long now = System.currentTimeMillis();
+        assert redisKeys.isMalformed("1234");
+        assert redisKeys.isMalformed(T4s.encode(Id.next(), 1234L).substring(1) + "_");
+        assert !redisKeys.isMalformed(T4s.encode(Id.next(), 1234L));
+        // 生成时间晚于当前时间加时钟偏差
+        assert redisKeys.isMalformed(T4s.encode(Id.format(machine, now + 3600000, 0), 1234L));
+        // 生成时间早于最大时长之前
+        assert redisKeys.isMalformed(T4s.encode(Id.format(machine, now - 7200000, 0), 1234L));
+    }
+
+    /**
+     * 布隆过滤器位数组与Redis位图相同
+     */
+    @Test
+    void test07BloomFilter() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        log.info("位数 {} 哈希函数个数 {}", filter.size(), filter.hashes());
+        // 按SETBIT的顺序构造位图(第0位为第一个字节的最高位)
+        byte[] bitmap = new byte[filter.size() / 8];
+        for (long element : new long[]{5, 99, 12345}) {
+            for (int position : filter.positions(element)) {
+                bitmap[position >>> 3] |= 0x80 >>> (position & 7);
+            }
+        }
+        filter.replace(bitmap, new long[]{7});
+        assert filter.mightContain(5) && filter.mightContain(99) && filter.mightContain(12345) && filter.mightContain(7);
+        int count = 0;
+        for (long i = 100000; i < 101000; i++) {
+            if (filter.mightContain(i)) {
+                count++;
+            }
+        }
+        log.info("误判 {}/1000", count);
+        assert count < 50;
+        filter.replace(null, new long[0]);
+        assert !filter.mightContain(5);
+    }
+
+    /**
+     * 签名token(不访问Redis)
+     */
+    @Test
+    void test08Signed() {
+        TinyTokenProperties properties = new TinyTokenProperties();
+        properties.getSigned().setEnabled(true);
+        properties.getSigned().setSecret("secret");
+        properties.getSigned().setMaxTimeout(3600);
+        // 撤销列表为空
+        Rt rt = new Rt(new LettuceConnectionFactory()) {
+
+            @Override
+            public void subscribe(String channel, Consumer<String> listener) {
+            }
+
+            @Override
+            public byte[] getBytes(String key) {
+                return null;
+            }
+
+            @Override
+            public Set<ZSetOperations.TypedTuple<Object>> rangeByScoreWithScores(String key, double min, double max) {
+                return Collections.emptySet();
+            }
+
+        };
+        SignedTokens signedTokens = new SignedTokens(properties, rt, ThreadLocalTokenGenerator.INSTANCE);
+        String token = signedTokens.sign(1234L, 100);
+        log.info(token);
+        assert token.length() == SignedTokens.LENGTH;
+        SignedTokens.Claims claims = signedTokens.verify(token);
+        assert claims != null && claims.valid && claims.id == 1234L && claims.timeout > 0 && claims.timeout <= 100;
+        // 篡改签名、内容
+        char last = token.charAt(token.length() - 1);
+        assert signedTokens.verify(token.substring(0, token.length() - 1) + (last == '0' ? '1' : '0')) == null;
+        char first = token.charAt(0);
+        assert signedTokens.verify((first == '0' ? '1' : '0') + token.substring(1)) == null;
+        // 不是签名token
+        assert signedTokens.verify(T4s.encode(Id.next(), 1234L)) == null;
+        // 其他密钥
+        properties.getSigned().setSecret("other");
+        assert new SignedTokens(properties, rt, ThreadLocalTokenGenerator.INSTANCE).verify(token) == null;
+        // 过期时间超过最大过期时间
+        boolean thrown = false;
+        try {
+            signedTokens.sign(1234L, 3601);
+        } catch (TinyTokenException e) {
+            log.info(e.getMessage());
+            thrown = true;
+        }
+        assert thrown;
+    }
+
+    /**
+     * 索引模式(自定义token、生成的token)
+     */
+    @Test
+    void test09IndexMode() {
+        TinyTokenProperties properties = new TinyTokenProperties();
+        properties.setPrefix("tiny-token-test09");
+        properties.setLookupMode(TinyTokenProperties.LookupMode.INDEX);
+        RedisKeys redisKeys = new RedisKeys(properties);
+        T4s t4s = new T4s(properties, rt);
+        rt.deleteMulti(rt.scan(properties.getPrefix() + ":*"));
+        try {
+            long id = 1234L;
+            String userKey = redisKeys.getUserKey(id);
+            // 自定义token写入索引键
+            String custom = "custom-token";
+            t4s.setToken(id, custom, "extra", 100);
+            String customKey = redisKeys.getKey(id, custom);
+            String indexKey = redisKeys.getIndexKey(custom);
+            // 生成的token直接解析出键，不写入索引键
+            String generated = t4s.setToken(id, 200);
+            String generatedKey = redisKeys.getKey(id, generated);
+            log.info("custom {} generated {}", customKey, generatedKey);
+            assert t4s.getId(custom) == id && "extra".equals(t4s.getExtra(custom));
+            assert t4s.getId(generated) == id;
+            assert isNear(rt.getExpire(customKey), 100) && isNear(rt.getExpire(indexKey), 100);
+            assert isNear(rt.getExpire(generatedKey), 200) && !rt.exists(redisKeys.getIndexKey(generated));
+            // 用户键分数为过期时间戳(秒)，过期时间为最晚的
+            long now = System.currentTimeMillis() / 1000;
+            assert isNear(rt.score(userKey, custom).longValue(), now + 100) && isNear(rt.score(userKey, generated).longValue(), now + 200);
+            assert isNear(rt.getExpire(userKey), 200);
+            // 续期
+            assert t4s.expire(custom, 300);
+            assert isNear(rt.getExpire(customKey), 300) && isNear(rt.getExpire(indexKey), 300);
+            assert isNear(rt.score(userKey, custom).longValue(), now + 300) && isNear(rt.getExpire(userKey), 300);
+            // 永不过期
+            assert t4s.persist(generated);
+            assert rt.getExpire(generatedKey) == -1 && rt.score(userKey, generated) == Double.POSITIVE_INFINITY;
+            assert rt.getExpire(userKey) == -1;
+            // 删除
+            assert t4s.deleteByToken(custom);
+            assert !rt.exists(customKey) && !rt.exists(indexKey) && rt.score(userKey, custom) == null;
+            assert t4s.getId(custom) == null;
+            assert t4s.deleteByToken(generated);
+            assert !rt.exists(generatedKey) && !rt.exists(userKey);
+            assert t4s.getId(generated) == null;
+        } finally {
+            rt.deleteMulti(rt.scan(properties.getPrefix() + ":*"));
+            t4s.destroy();
+        }
+    }
+
+    /**
+     * 超时时间(秒)是否接近(允许执行耗时)
+     *
+     * @param actual   实际值
+     * @param expected 期望值
+     * @return 是否接近
+     */
+    private static boolean isNear(long actual, long expected) {
+        return Math.abs(actual - expected) <= 2;
+    }
+
 }